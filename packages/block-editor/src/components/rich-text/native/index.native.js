@@ -100,6 +100,9 @@ const gutenbergFormatNamesToAztec = {
 const EMPTY_PARAGRAPH_TAGS = '<p></p>';
 const DEFAULT_FONT_SIZE = 16;
 const MIN_LINE_HEIGHT = 1;
+// HTML from this length on skips the hashing Aztec does on Android for new content, which serializes the whole
+// content again on the UI thread. RichText never uses that hash.
+const LARGE_TEXT_LENGTH = 10000;
 
 export class RichText extends Component {
 	constructor( { value, selectionStart, selectionEnd } ) {
@@ -1299,6 +1302,7 @@ export class RichText extends Component {
 						defaultColor
 					}
 					maxImagesWidth={ 200 }
+					largeTextLength={ LARGE_TEXT_LENGTH }
 					fontFamily={ this.props.fontFamily || defaultFontFamily }
 					fontSize={ fontSize }
 					lineHeight={ lineHeight }
@@ -10,6 +10,7 @@ import { SafeAreaProvider } from 'react-native-safe-area-context';
  */
 import RNReactNativeGutenbergBridge, {
 	requestBlockTypeImpressions,
+	sendNativeEditorDidChangeContent,
 	setBlockTypeImpressions,
 	subscribeParentGetHtml,
 	subscribeParentToggleHTMLMode,
@@ -118,9 +119,11 @@ class NativeEditorProvider extends Component {
 			hostAppNamespace,
 		} );
 
-		this.subscriptionParentGetHtml = subscribeParentGetHtml( () => {
-			this.serializeToNativeAction();
-		} );
+		this.subscriptionParentGetHtml = subscribeParentGetHtml(
+			( payload ) => {
+				this.serializeToNativeAction( payload?.requestId );
+			}
+		);
 
 		this.subscriptionParentToggleHTMLMode = subscribeParentToggleHTMLMode(
 			() => {
@@ -297,6 +300,17 @@ class NativeEditorProvider extends Component {
 				unsupportedBlockNames
 			);
 		}
+
+		// Only the first change after each serialization needs to be reported.
+		if (
+			! this.hasUnserializedChanges &&
+			( this.props.blocks !== prevProps.blocks ||
+				this.props.title !== prevProps.title ||
+				this.props.mode !== prevProps.mode )
+		) {
+			this.hasUnserializedChanges = true;
+			sendNativeEditorDidChangeContent();
+		}
 	}
 
 	onHardwareBackPress() {
@@ -324,7 +338,12 @@ class NativeEditorProvider extends Component {
 		onClearPostTitleSelection();
 	}
 
-	serializeToNativeAction() {
+	/**
+	 * Sends the title and HTML of the post to the native side.
+	 *
+	 * @param {number} [requestId] Id of the native request being answered, echoed in the content info.
+	 */
+	serializeToNativeAction( requestId ) {
 		const title = this.props.title;
 		let html;
 
@@ -348,6 +367,10 @@ class NativeEditorProvider extends Component {
 		contentInfo.wordCount = wordCount( html, 'words' );
 		contentInfo.paragraphCount = this.props.paragraphCount;
 		contentInfo.blockCount = this.props.blockCount;
+		if ( requestId !== undefined ) {
+			contentInfo.requestId = requestId;
+		}
+		this.hasUnserializedChanges = false;
 		RNReactNativeGutenbergBridge.provideToNative_Html(
 			html,
 			title,
@@ -355,6 +378,13 @@ class NativeEditorProvider extends Component {
 			contentInfo
 		);
 
+		if ( this.props.mode === 'text' ) {
+			// Changes made in the HTML text input don't reach the store, so the
+			// native side can't assume the content stays the same.
+			this.hasUnserializedChanges = true;
+			sendNativeEditorDidChangeContent();
+		}
+
 		if ( hasChanges ) {
 			this.post.title.raw = title;
 			this.post.content.raw = html;
@@ -0,0 +1,44 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+/**
+ * Counts of the HTML work done by the Aztec views of a {@link ReactAztecPackage}, summed over all its views. Written
+ * on the UI thread, and can be read from any thread.
+ */
+public class AztecHtmlMetrics {
+    private volatile int mHtmlCacheHitCount = 0;
+    private volatile int mHtmlCacheMissCount = 0;
+    private volatile int mSkippedFromHtmlCount = 0;
+
+    /** Times the HTML of the content was reused, as it didn't change since it was last serialized */
+    public int getHtmlCacheHitCount() {
+        return mHtmlCacheHitCount;
+    }
+
+    /** Times the content was serialized to HTML */
+    public int getHtmlCacheMissCount() {
+        return mHtmlCacheMissCount;
+    }
+
+    /** Times the HTML set from JS wasn't parsed, as the view already had that content */
+    public int getSkippedFromHtmlCount() {
+        return mSkippedFromHtmlCount;
+    }
+
+    public void reset() {
+        mHtmlCacheHitCount = 0;
+        mHtmlCacheMissCount = 0;
+        mSkippedFromHtmlCount = 0;
+    }
+
+    void onHtmlCacheHit() {
+        mHtmlCacheHitCount++;
+    }
+
+    void onHtmlCacheMiss() {
+        mHtmlCacheMissCount++;
+    }
+
+    void onFromHtmlSkipped() {
+        mSkippedFromHtmlCount++;
+    }
+}
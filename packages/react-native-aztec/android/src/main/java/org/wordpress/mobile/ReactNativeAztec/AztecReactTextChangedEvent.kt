@@ -1,30 +1,85 @@
 package org.wordpress.mobile.ReactNativeAztec
 
+import androidx.annotation.VisibleForTesting
 import com.facebook.react.bridge.Arguments
 import com.facebook.react.bridge.WritableMap
 import com.facebook.react.uimanager.events.Event
 import com.facebook.react.uimanager.events.RCTEventEmitter
+import com.facebook.react.views.textinput.ReactTextInputEvent
 
 /**
  * This event includes all data contained in [com.facebook.react.views.textinput.ReactTextChangedEvent],
  * plus some extra info Gutenberg needs from Aztec.
+ *
+ * When [mDelta] is set, the event carries only the change from the previous event's HTML instead of the full text.
+ * When [mTextInput] is set, the event also carries the data of the
+ * [com.facebook.react.views.textinput.ReactTextInputEvent] for the same change. The text inputs of coalesced events
+ * that couldn't be merged with it are kept in [mPrecedingTextInputs], and sent as their own text input events first.
  */
-class AztecReactTextChangedEvent(
+class AztecReactTextChangedEvent @JvmOverloads constructor(
     viewId: Int,
-    private val mText: String,
+    private val mText: String?,
     private val mEventCount: Int,
-    private val mMostRecentChar: Char?
+    private val mMostRecentChar: Char?,
+    private val mDelta: HtmlDelta? = null,
+    private val mTextInput: TextInputChange? = null,
+    private val mPrecedingTextInputs: List<TextInputChange> = emptyList()
 ) : Event<AztecReactTextChangedEvent>(viewId) {
 
     override fun getEventName(): String = "topAztecChange"
 
+    // A delta only applies on top of the previous event, so it can't be dropped
+    override fun canCoalesce(): Boolean = mDelta == null
+
+    override fun coalesce(otherEvent: AztecReactTextChangedEvent): AztecReactTextChangedEvent {
+        val (older, newer) = if (mEventCount >= otherEvent.mEventCount) otherEvent to this else this to otherEvent
+        if (older.mTextInput == null) {
+            return newer.withPrecedingTextInputs(older.mPrecedingTextInputs)
+        }
+        // Only merge the text input of consecutive events, otherwise a change would be missing in between
+        val merged = if (newer.mTextInput != null && newer.mEventCount == older.mEventCount + 1) {
+            older.mTextInput.followedBy(newer.mTextInput)
+        } else {
+            null
+        }
+        if (merged == null) {
+            return newer.withPrecedingTextInputs(older.mPrecedingTextInputs + older.mTextInput)
+        }
+        return AztecReactTextChangedEvent(viewTag, newer.mText, newer.mEventCount, newer.mMostRecentChar,
+                null, merged, older.mPrecedingTextInputs + newer.mPrecedingTextInputs)
+    }
+
+    private fun withPrecedingTextInputs(textInputs: List<TextInputChange>): AztecReactTextChangedEvent =
+            if (textInputs.isEmpty()) {
+                this
+            } else {
+                AztecReactTextChangedEvent(viewTag, mText, mEventCount, mMostRecentChar, mDelta, mTextInput,
+                        textInputs + mPrecedingTextInputs)
+            }
+
+    // All the text inputs this event sends, oldest first
+    @get:VisibleForTesting
+    val textInputs: List<TextInputChange>
+        get() = if (mTextInput != null) mPrecedingTextInputs + mTextInput else mPrecedingTextInputs
+
     override fun dispatch(rctEventEmitter: RCTEventEmitter) {
+        for (textInput in mPrecedingTextInputs) {
+            ReactTextInputEvent(viewTag, textInput.text, textInput.previousText, textInput.rangeStart,
+                    textInput.rangeEnd).dispatch(rctEventEmitter)
+        }
         rctEventEmitter.receiveEvent(viewTag, eventName, serializeEventData())
     }
 
     private fun serializeEventData(): WritableMap =
             Arguments.createMap().apply {
-                putString("text", mText)
+                if (mDelta != null) {
+                    putMap("delta", mDelta.toWritableMap())
+                } else {
+                    putString("text", mText)
+                }
+                if (mTextInput != null) {
+                    putMap("textInput", mTextInput.toWritableMap())
+                }
                 putInt("eventCount", mEventCount)
                 putInt("target", viewTag)
                 if (mMostRecentChar != null) {
@@ -0,0 +1,55 @@
+package org.wordpress.mobile.ReactNativeAztec
+
+import com.facebook.react.bridge.Arguments
+import com.facebook.react.bridge.WritableMap
+
+/**
+ * The change between two HTML strings: [removedLength] characters at [offset] are replaced with [inserted].
+ * [baseEventCount] is the event count of the change event that carried the old HTML, so JS can tell whether
+ * it is able to apply the delta.
+ */
+data class HtmlDelta(
+    val offset: Int,
+    val removedLength: Int,
+    val inserted: String,
+    val baseEventCount: Int
+) {
+    fun toWritableMap(): WritableMap =
+            Arguments.createMap().apply {
+                putInt("offset", offset)
+                putInt("removedLength", removedLength)
+                putString("inserted", inserted)
+                putInt("baseEventCount", baseEventCount)
+            }
+
+    companion object {
+        @JvmStatic
+        fun between(oldHtml: String, newHtml: String, baseEventCount: Int): HtmlDelta {
+            val maxLength = minOf(oldHtml.length, newHtml.length)
+
+            var prefix = 0
+            while (prefix < maxLength && oldHtml[prefix] == newHtml[prefix]) {
+                prefix++
+            }
+            // Never split a surrogate pair, a lone surrogate doesn't survive the trip through the bridge
+            if (prefix > 0 && Character.isHighSurrogate(newHtml[prefix - 1])) {
+                prefix--
+            }
+
+            var suffix = 0
+            while (suffix < maxLength - prefix &&
+                    oldHtml[oldHtml.length - 1 - suffix] == newHtml[newHtml.length - 1 - suffix]) {
+                suffix++
+            }
+            if (suffix > 0 && Character.isLowSurrogate(newHtml[newHtml.length - suffix])) {
+                suffix--
+            }
+
+            return HtmlDelta(
+                    prefix,
+                    oldHtml.length - prefix - suffix,
+                    newHtml.substring(prefix, newHtml.length - suffix),
+                    baseEventCount)
+        }
+    }
+}
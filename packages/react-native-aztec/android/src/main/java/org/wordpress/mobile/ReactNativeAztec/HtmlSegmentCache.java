@@ -0,0 +1,143 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps the HTML of contiguous segments of a text, so that only the segments touched by an edit need to be
+ * serialized again. The segments always cover the whole text, and their offsets are kept in sync with the edits
+ * reported through {@link #onTextChanged}.
+ *
+ * This class doesn't know anything about spans or HTML: where the text can be cut and how a segment is serialized
+ * are provided by the caller (see {@link IncrementalHtmlSerializer}), which keeps it usable from plain JVM tests.
+ */
+class HtmlSegmentCache {
+
+    interface Splitter {
+        /**
+         * @return the offsets, in ascending order and strictly between start and end, at which the text can be cut
+         * without changing the resulting HTML
+         */
+        int[] findCuts(int start, int end);
+    }
+
+    interface Serializer {
+        String serialize(int start, int end);
+    }
+
+    private static class Segment {
+        int start;
+        int end;
+        String html;
+
+        Segment(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final ArrayList<Segment> mSegments = new ArrayList<>();
+    private int mLastSerializedLength = 0;
+
+    void invalidateAll() {
+        mSegments.clear();
+    }
+
+    /**
+     * Marks the segments touching [start, end] as dirty. Offsets are the ones of the current text.
+     */
+    void invalidate(int start, int end) {
+        mergeDirty(start, end, 0);
+    }
+
+    /**
+     * Same arguments as {@link android.text.TextWatcher#onTextChanged}: the segments touching the replaced range
+     * become dirty, and the ones after it are shifted.
+     */
+    void onTextChanged(int start, int before, int count) {
+        mergeDirty(start, start + before, count - before);
+    }
+
+    private void mergeDirty(int start, int end, int delta) {
+        if (mSegments.isEmpty()) {
+            return;
+        }
+
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < mSegments.size(); i++) {
+            Segment segment = mSegments.get(i);
+            if (segment.end < start) {
+                continue;
+            }
+            if (segment.start > end) {
+                segment.start += delta;
+                segment.end += delta;
+                continue;
+            }
+            if (first == -1) {
+                first = i;
+            }
+            last = i;
+        }
+
+        if (first == -1) {
+            // The segments are expected to cover the whole text, so this is a change we can't place
+            invalidateAll();
+            return;
+        }
+
+        Segment merged = mSegments.get(first);
+        merged.end = mSegments.get(last).end + delta;
+        merged.html = null;
+        mSegments.subList(first + 1, last + 1).clear();
+    }
+
+    String serialize(int length, Splitter splitter, Serializer serializer) {
+        if (mSegments.isEmpty() || mSegments.get(mSegments.size() - 1).end != length) {
+            mSegments.clear();
+            mSegments.add(new Segment(0, length));
+        }
+
+        mLastSerializedLength = 0;
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < mSegments.size(); i++) {
+            Segment segment = mSegments.get(i);
+            if (segment.html != null) {
+                html.append(segment.html);
+                continue;
+            }
+
+            // Dirty segments are split again, since the edit may have added or removed places where we can cut
+            int[] cuts = splitter.findCuts(segment.start, segment.end);
+            int end = segment.end;
+            for (int j = 0; j <= cuts.length; j++) {
+                Segment piece = segment;
+                if (j > 0) {
+                    piece = new Segment(cuts[j - 1], end);
+                    mSegments.add(i + j, piece);
+                }
+                piece.end = j < cuts.length ? cuts[j] : end;
+                piece.html = serializer.serialize(piece.start, piece.end);
+                mLastSerializedLength += piece.end - piece.start;
+                html.append(piece.html);
+            }
+            i += cuts.length;
+        }
+        return html.toString();
+    }
+
+    int getSegmentCount() {
+        return mSegments.size();
+    }
+
+    int getSegmentStart(int index) {
+        return mSegments.get(index).start;
+    }
+
+    /**
+     * @return how many characters of the text had to be serialized during the last {@link #serialize} call
+     */
+    int getLastSerializedLength() {
+        return mLastSerializedLength;
+    }
+}
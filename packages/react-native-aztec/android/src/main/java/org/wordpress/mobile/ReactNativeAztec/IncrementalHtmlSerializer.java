@@ -0,0 +1,226 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.text.Editable;
+import android.text.NoCopySpan;
+import android.text.SpanWatcher;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.TextWatcher;
+
+import androidx.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+
+import java.util.Arrays;
+
+/**
+ * Produces the same HTML as {@code toHtml(getText(), false)}, but only serializes again the parts of the text that
+ * changed since the previous call.
+ *
+ * The text is cut into segments at places that no span crosses or even touches (see {@link #findCuts}), so every span
+ * ends up whole in a single segment, and the HTML of each segment is cached by {@link HtmlSegmentCache}. To know what
+ * changed, this class attaches itself to the {@link Editable} as a {@link TextWatcher} and a {@link SpanWatcher}, the
+ * same way {@link android.widget.TextView} tracks its own text.
+ *
+ * The cuts are checked against the spans again before the HTML is returned, and the text is serialized as a whole if
+ * a span got to touch one of them. As a last resort for differences not caused by spans, the output is also compared
+ * with a full serialization from time to time, and the incremental path is turned off for the view if they differ.
+ */
+class IncrementalHtmlSerializer implements TextWatcher, SpanWatcher, NoCopySpan {
+
+    // The view whose text is serialized, {@code toHtml} being its {@code toHtml(text, false)}
+    interface Source {
+        Editable getText();
+
+        String toHtml(Spannable text);
+    }
+
+    // Short segments would make us call into Aztec (and allocate its parser) too many times for a full serialization.
+    private static final int MIN_SEGMENT_LENGTH = 256;
+    // One call in this many also serializes the whole text, so on top of the edited segments a keystroke costs, once
+    // amortized, this fraction of a full serialization (timed by AztecBridgeBenchmark).
+    static final int VALIDATION_INTERVAL = 32;
+    private static final int[] NO_CUTS = new int[0];
+
+    // Run before the TextWatchers added to the view (TextView's ChangeWatcher uses priority 100), so the cache is
+    // already up to date when the listeners ask for the HTML of the new text.
+    private static final int WATCHER_FLAGS = Spanned.SPAN_INCLUSIVE_INCLUSIVE | Spanned.SPAN_PRIORITY;
+
+    private final Source mSource;
+    private final HtmlSegmentCache mCache = new HtmlSegmentCache();
+    private @Nullable Editable mWatchedText;
+    private boolean mEnabled = true;
+    private int mSerializationsSinceValidation = 0;
+
+    IncrementalHtmlSerializer(Source source) {
+        mSource = source;
+    }
+
+    String toHtml() {
+        final Editable text = mSource.getText();
+        if (!mEnabled) {
+            return mSource.toHtml(text);
+        }
+
+        if (text != mWatchedText) {
+            // The whole Editable gets replaced when the content is set with fromHtml
+            watch(text);
+        }
+
+        String html = mCache.serialize(text.length(), new HtmlSegmentCache.Splitter() {
+            @Override
+            public int[] findCuts(int start, int end) {
+                return IncrementalHtmlSerializer.findCuts(text, start, end);
+            }
+        }, new HtmlSegmentCache.Serializer() {
+            @Override
+            public String serialize(int start, int end) {
+                if (start == 0 && end == text.length()) {
+                    return mSource.toHtml(text);
+                }
+                return mSource.toHtml(new SpannableStringBuilder(text, start, end));
+            }
+        });
+
+        for (int i = 1; i < mCache.getSegmentCount(); i++) {
+            if (hasHtmlSpanAt(text, mCache.getSegmentStart(i))) {
+                // Not expected, findCuts never cuts there and the edits around a cut merge its segments
+                AppLog.w(AppLog.T.EDITOR, "A span touches a cut of the incremental HTML serialization, "
+                                          + "serializing the whole text.");
+                mCache.invalidateAll();
+                return mSource.toHtml(text);
+            }
+        }
+
+        if (mSerializationsSinceValidation++ % VALIDATION_INTERVAL == 0) {
+            String fullHtml = mSource.toHtml(text);
+            if (!fullHtml.equals(html)) {
+                AppLog.w(AppLog.T.EDITOR, "Incremental HTML serialization differs from the full one, disabling it.");
+                mEnabled = false;
+                watch(null);
+                return fullHtml;
+            }
+        }
+
+        return html;
+    }
+
+    private void watch(@Nullable Editable text) {
+        if (mWatchedText != null) {
+            mWatchedText.removeSpan(this);
+        }
+        mWatchedText = text;
+        mCache.invalidateAll();
+        mSerializationsSinceValidation = 0;
+        if (text != null) {
+            text.setSpan(this, 0, text.length(), WATCHER_FLAGS);
+        }
+    }
+
+    /**
+     * Cuts are placed after a space that is followed by a non-whitespace character, at least
+     * {@link #MIN_SEGMENT_LENGTH} characters apart, and never inside or at either end of a span, even an empty one:
+     * each span is part of a single segment, so block and inline elements are always serialized as a whole, and
+     * copying a segment doesn't duplicate or cut any of them.
+     */
+    static int[] findCuts(Spanned text, int start, int end) {
+        if (end - start < 2 * MIN_SEGMENT_LENGTH) {
+            return NO_CUTS;
+        }
+
+        // Collect the spans that would be touched by a cut, as [start, end] pairs sorted by start
+        Object[] spans = text.getSpans(start, end, Object.class);
+        long[] ranges = new long[spans.length];
+        int rangeCount = 0;
+        for (Object span : spans) {
+            if (isHtmlSpan(text, span)) {
+                ranges[rangeCount++] = ((long) text.getSpanStart(span) << 32) | text.getSpanEnd(span);
+            }
+        }
+        Arrays.sort(ranges, 0, rangeCount);
+
+        int[] cuts = new int[(end - start) / MIN_SEGMENT_LENGTH];
+        int cutCount = 0;
+        int rangeIndex = 0;
+        int coveredUntil = -1;
+        int position = start + MIN_SEGMENT_LENGTH;
+        while (position <= end - MIN_SEGMENT_LENGTH) {
+            // extend the covered area with all the spans starting at or before this position
+            while (rangeIndex < rangeCount && (int) (ranges[rangeIndex] >>> 32) <= position) {
+                coveredUntil = Math.max(coveredUntil, (int) ranges[rangeIndex]);
+                rangeIndex++;
+            }
+
+            if (position <= coveredUntil) {
+                position = coveredUntil + 1;
+            } else if (text.charAt(position - 1) == ' ' && !Character.isWhitespace(text.charAt(position))) {
+                cuts[cutCount++] = position;
+                position += MIN_SEGMENT_LENGTH;
+            } else {
+                position++;
+            }
+        }
+
+        return Arrays.copyOf(cuts, cutCount);
+    }
+
+    private static boolean hasHtmlSpanAt(Spanned text, int position) {
+        for (Object span : text.getSpans(position, position, Object.class)) {
+            if (isHtmlSpan(text, span)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Watchers, selection and IME state aren't part of the HTML
+    private static boolean isHtmlSpan(Spanned text, Object span) {
+        return !(span instanceof NoCopySpan) && (text.getSpanFlags(span) & Spanned.SPAN_COMPOSING) == 0;
+    }
+
+    //// TextWatcher
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count) {
+        mCache.onTextChanged(start, before, count);
+    }
+
+    @Override
+    public void afterTextChanged(Editable s) {}
+
+    //// SpanWatcher
+
+    @Override
+    public void onSpanAdded(Spannable text, Object what, int start, int end) {
+        if (isRelevantSpan(text, what)) {
+            mCache.invalidate(start, end);
+        }
+    }
+
+    @Override
+    public void onSpanRemoved(Spannable text, Object what, int start, int end) {
+        if (isRelevantSpan(text, what)) {
+            mCache.invalidate(start, end);
+        }
+    }
+
+    @Override
+    public void onSpanChanged(Spannable text, Object what, int ostart, int oend, int nstart, int nend) {
+        if (!isRelevantSpan(text, what)) {
+            return;
+        }
+        if (nstart - ostart == nend - oend && nstart != ostart) {
+            // Moved along with the text after an edit, onTextChanged already shifted the segments
+            return;
+        }
+        mCache.invalidate(Math.min(ostart, nstart), Math.max(oend, nend));
+    }
+
+    private boolean isRelevantSpan(Spannable text, Object what) {
+        return what != this && isHtmlSpan(text, what);
+    }
+}
@@ -42,7 +42,6 @@ import com.facebook.react.views.text.DefaultStyleValuesUtil;
 import com.facebook.react.views.text.ReactFontManager;
 import com.facebook.react.views.text.ReactTextUpdate;
 import com.facebook.react.views.textinput.ReactContentSizeChangedEvent;
-import com.facebook.react.views.textinput.ReactTextInputEvent;
 import com.facebook.react.views.textinput.ReactTextInputManager;
 import com.facebook.react.views.textinput.ScrollWatcher;
 
@@ -89,10 +88,24 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
 
     @Nullable private final Consumer<Exception> exceptionLogger;
     @Nullable private final Consumer<String> breadcrumbLogger;
+    @Nullable private final Runnable onContentChanged;
+    private final AztecHtmlMetrics htmlMetrics;
 
     public ReactAztecManager(@Nullable Consumer<Exception> exceptionLogger, @Nullable Consumer<String> breadcrumbLogger) {
+        this(exceptionLogger, breadcrumbLogger, null);
+    }
+
+    public ReactAztecManager(@Nullable Consumer<Exception> exceptionLogger, @Nullable Consumer<String> breadcrumbLogger,
+                             @Nullable Runnable onContentChanged) {
+        this(exceptionLogger, breadcrumbLogger, onContentChanged, new AztecHtmlMetrics());
+    }
+
+    public ReactAztecManager(@Nullable Consumer<Exception> exceptionLogger, @Nullable Consumer<String> breadcrumbLogger,
+                             @Nullable Runnable onContentChanged, AztecHtmlMetrics htmlMetrics) {
         this.exceptionLogger = exceptionLogger;
         this.breadcrumbLogger = breadcrumbLogger;
+        this.onContentChanged = onContentChanged;
+        this.htmlMetrics = htmlMetrics;
         initializeFocusAndBlurCommandCodes();
     }
 
@@ -114,6 +127,7 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
     @Override
     protected ReactAztecText createViewInstance(ThemedReactContext reactContext) {
         ReactAztecText aztecText = new ReactAztecText(reactContext);
+        aztecText.htmlMetrics = htmlMetrics;
         aztecText.setFocusableInTouchMode(false);
         aztecText.setEnabled(true);
         aztecText.setCalypsoMode(false);
@@ -213,11 +227,22 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
 
     @ReactProp(name = "text")
     public void setText(ReactAztecText view, ReadableMap inputMap) {
+        if (!view.hasInitialProps) {
+            // Props come in no particular order, and setting the text depends on some of them (e.g. largeTextLength),
+            // so the first text waits for all the props of the mount. See onAfterUpdateTransaction.
+            view.initialTextFromJS = inputMap;
+            return;
+        }
+
         if (inputMap.hasKey(LINK_TEXT_COLOR_KEY)) {
             int color = Color.parseColor(inputMap.getString(LINK_TEXT_COLOR_KEY));
             setLinkTextColor(view, color);
         }
 
+        // Keystrokes held back by the coalescing haven't bumped the event counter yet, send them first so
+        // they count when telling whether JS has seen the latest content
+        view.flushPendingTextChange();
+
         if (!inputMap.hasKey("eventCount")) {
             setTextfromJS(view, inputMap.getString("text"), inputMap.getMap("selection"));
         } else {
@@ -232,12 +257,34 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
         }
     }
 
+    @Override
+    protected void onAfterUpdateTransaction(ReactAztecText view) {
+        super.onAfterUpdateTransaction(view);
+        if (!view.hasInitialProps) {
+            view.hasInitialProps = true;
+            ReadableMap initialText = view.initialTextFromJS;
+            if (initialText != null) {
+                view.initialTextFromJS = null;
+                setText(view, initialText);
+            }
+        }
+    }
+
     private void setTextfromJS(ReactAztecText view, String text, @Nullable ReadableMap selection) {
-        view.setIsSettingTextFromJS(true);
-        view.disableOnSelectionListener();
-        view.fromHtml(text, true);
-        view.enableOnSelectionListener();
-        view.setIsSettingTextFromJS(false);
+        if (view.hasSameContentAs(text)) {
+            // JS is echoing back the content it got from us, parsing it again would give the same result
+            view.onFromHtmlSkipped();
+        } else {
+            // With isInit, Aztec serializes the new content again to hash it, only needed for AztecText.hasChanges()
+            // which Gutenberg doesn't use. That's a noticeable cost on the UI thread for long content.
+            boolean isInit = view.largeTextLength <= 0 || text.length() < view.largeTextLength;
+            view.setIsSettingTextFromJS(true);
+            view.disableOnSelectionListener();
+            view.fromHtml(text, isInit);
+            view.enableOnSelectionListener();
+            view.setIsSettingTextFromJS(false);
+            view.onHtmlSetFromJS(text);
+        }
         updateSelectionIfNeeded(view, selection);
     }
 
@@ -591,6 +638,11 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
         view.shouldHandleOnSelectionChange = onSelectionChange;
     }
 
+    @ReactProp(name = "sendSelectionTextOnlyIfChanged", defaultBoolean = false)
+    public void setSendSelectionTextOnlyIfChanged(final ReactAztecText view, boolean onlyIfChanged) {
+        view.shouldSendSelectionTextOnlyIfChanged = onlyIfChanged;
+    }
+
     @ReactProp(name = "onScroll", defaultBoolean = false)
     public void setOnScroll(final ReactAztecText view, boolean onScroll) {
         if (onScroll) {
@@ -615,6 +667,29 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
         view.shouldHandleOnPaste = onPasteHandling;
     }
 
+    @ReactProp(name = "sendTextDeltas", defaultBoolean = false)
+    public void setSendTextDeltas(final ReactAztecText view, boolean sendTextDeltas) {
+        view.shouldSendTextDeltas = sendTextDeltas;
+    }
+
+    @ReactProp(name = "mergeTextInputEvents", defaultBoolean = false)
+    public void setMergeTextInputEvents(final ReactAztecText view, boolean mergeTextInputEvents) {
+        view.shouldMergeTextInputEvents = mergeTextInputEvents;
+    }
+
+    @ReactProp(name = "textChangeCoalescingFrames", defaultInt = 0)
+    public void setTextChangeCoalescingFrames(final ReactAztecText view, int frames) {
+        view.textChangeCoalescingFrames = Math.max(0, frames);
+        if (frames <= 0) {
+            view.flushPendingTextChange();
+        }
+    }
+
+    @ReactProp(name = "largeTextLength", defaultInt = 0)
+    public void setLargeTextLength(final ReactAztecText view, int largeTextLength) {
+        view.largeTextLength = largeTextLength;
+    }
+
     @ReactProp(name = "deleteEnter", defaultBoolean = false)
     public void setShouldDeleteEnter(final ReactAztecText view, boolean shouldDeleteEnter) {
         view.shouldDeleteEnter = shouldDeleteEnter;
@@ -668,6 +743,9 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
         } else if (commandType.equals("onRemoveMarkFormatting")) {
             // This is handled by setActiveFormats
             return;
+        } else if (commandType.equals("requestTextSnapshot")) {
+            parent.sendTextSnapshot();
+            return;
         }
         super.receiveCommand(parent, commandType, args);
     }
@@ -685,6 +763,7 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
                                     new ReactAztecFocusEvent(
                                             editText.getId()));
                         } else {
+                            editText.flushPendingTextChange();
                             eventDispatcher.dispatchEvent(
                                     new ReactAztecBlurEvent(
                                             editText.getId()));
@@ -692,7 +771,7 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
                             eventDispatcher.dispatchEvent(
                                     new ReactAztecEndEditingEvent(
                                             editText.getId(),
-                                            editText.toHtml(editText.getText(), false)));
+                                            editText.getCurrentHtml()));
                         }
                     }
                 });
@@ -716,63 +795,68 @@ public class ReactAztecManager extends BaseViewManager<ReactAztecText, LayoutSha
 
     private class AztecTextWatcher implements TextWatcher {
 
-        private EventDispatcher mEventDispatcher;
         private ReactAztecText mEditText;
-        private String mPreviousText;
+        // Only the replaced range of the text is kept, copying the whole text on every edit is costly for long blocks
+        private String mReplacedText;
+        private int mPreviousTextLength;
 
         public AztecTextWatcher(final ReactContext reactContext, final ReactAztecText aztecText) {
-            mEventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
             mEditText = aztecText;
-            mPreviousText = null;
+            mReplacedText = null;
         }
 
         @Override
         public void beforeTextChanged(CharSequence s, int start, int count, int after) {
             // Incoming charSequence gets mutated before onTextChanged() is invoked
-            mPreviousText = s.toString();
+            mReplacedText = s.subSequence(start, start + count).toString();
+            mPreviousTextLength = s.length();
+            if (mEditText.isCoalescingTextChanges()) {
+                mEditText.beforeTextChangedForBurst(s, start, count, after);
+            }
         }
 
         @Override
         public void onTextChanged(CharSequence s, int start, int before, int count) {
+            boolean singleCharacterHasBeenAdded = count - before == 1;
+            Character mostRecentChar = singleCharacterHasBeenAdded ? s.charAt(start + before) : null;
+            if (mEditText.isCoalescingTextChanges()) {
+                // Every edit moves the burst, even the ones not reported
+                mEditText.onTextChangedForBurst(mostRecentChar);
+            }
+
             // Rearranging the text (i.e. changing between singleline and multiline attributes) can
             // also trigger onTextChanged, call the event in JS only when the text actually changed
             if (count == 0 && before == 0) {
                 return;
             }
 
-            Assertions.assertNotNull(mPreviousText);
-            String newText = s.toString().substring(start, start + count);
-            String oldText = mPreviousText.substring(start, start + before);
+            Assertions.assertNotNull(mReplacedText);
+            String newText = s.subSequence(start, start + count).toString();
+            String oldText = mReplacedText;
             // Don't send same text changes
             if (count == before && newText.equals(oldText)) {
                 return;
             }
 
+            if (onContentChanged != null) {
+                onContentChanged.run();
+            }
+
             // if the "Enter" handling is underway, don't sent text change events. The ReactAztecEnterEvent will have
             // the text (minus the Enter char itself).
             if (!mEditText.isEnterPressedUnderway()) {
-                int currentEventCount = mEditText.incrementAndGetEventCounter();
-                boolean singleCharacterHasBeenAdded = count - before == 1;
-                // The event that contains the event counter and updates it must be sent first.
-                // TODO: t7936714 merge these events
-                mEventDispatcher.dispatchEvent(
-                        new AztecReactTextChangedEvent(
-                                mEditText.getId(),
-                                mEditText.toHtml(mEditText.getText(), false),
-                                currentEventCount,
-                                singleCharacterHasBeenAdded ? s.charAt(start + before) : null));
-
-                mEventDispatcher.dispatchEvent(
-                        new ReactTextInputEvent(
-                                mEditText.getId(),
-                                newText,
-                                oldText,
-                                start,
-                                start + before));
+                if (mEditText.isCoalescingTextChanges()) {
+                    mEditText.queueTextChange(mostRecentChar);
+                } else {
+                    mEditText.dispatchTextChangedEvents(
+                            mEditText.incrementAndGetEventCounter(),
+                            mostRecentChar,
+                            new TextInputChange(newText, oldText, start, start + before));
+                }
             }
 
 
-            if (mPreviousText.length() == 0
+            if (mPreviousTextLength == 0
                     && !isTextEmpty(newText)
                     && !TextUtils.isEmpty(mEditText.getTagName())
                     && mEditText.getSelectedStyles().isEmpty()) {
@@ -1,5 +1,6 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import androidx.annotation.Nullable;
 import androidx.core.util.Consumer;
 
 import com.facebook.react.ReactPackage;
@@ -15,16 +16,34 @@ public class ReactAztecPackage implements ReactPackage {
 
     private final Consumer<Exception> exceptionLogger;
     private final Consumer<String> breadcrumbLogger;
+    @Nullable private final Runnable onContentChanged;
+    private final AztecHtmlMetrics htmlMetrics = new AztecHtmlMetrics();
 
     public ReactAztecPackage(Consumer<Exception> exceptionLogger, Consumer<String> breadcrumbLogger) {
+        this(exceptionLogger, breadcrumbLogger, null);
+    }
+
+    /**
+     * @param onContentChanged called on the UI thread whenever the user changes the text of an Aztec view
+     */
+    public ReactAztecPackage(Consumer<Exception> exceptionLogger, Consumer<String> breadcrumbLogger,
+                             @Nullable Runnable onContentChanged) {
         this.exceptionLogger = exceptionLogger;
         this.breadcrumbLogger = breadcrumbLogger;
+        this.onContentChanged = onContentChanged;
+    }
+
+    /**
+     * The HTML work done by the Aztec views of this package.
+     */
+    public AztecHtmlMetrics getHtmlMetrics() {
+        return htmlMetrics;
     }
 
     @Override
     public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
         List<ViewManager> views = new ArrayList<>();
-        views.add(new ReactAztecManager(exceptionLogger, breadcrumbLogger));
+        views.add(new ReactAztecManager(exceptionLogger, breadcrumbLogger, onContentChanged, htmlMetrics));
         return views;
     }
 
@@ -1,5 +1,7 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import androidx.annotation.Nullable;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
@@ -8,17 +10,18 @@ import com.facebook.react.uimanager.events.RCTEventEmitter;
 
 /**
  * Event emitted by Aztec native view when selection changes.
+ * The text is left out when JS already has it from a previous event.
  */
 class ReactAztecSelectionChangeEvent extends Event<ReactAztecSelectionChangeEvent> {
 
     private static final String EVENT_NAME = "topSelectionChange";
 
-    private String mText;
+    private @Nullable String mText;
     private int mSelectionStart;
     private int mSelectionEnd;
     private int mEventCount;
 
-    public ReactAztecSelectionChangeEvent(int viewId, String text, int selectionStart, int selectionEnd, int eventCount) {
+    public ReactAztecSelectionChangeEvent(int viewId, @Nullable String text, int selectionStart, int selectionEnd, int eventCount) {
         super(viewId);
         mText = text;
         mSelectionStart = selectionStart;
@@ -44,7 +47,9 @@ class ReactAztecSelectionChangeEvent extends Event<ReactAztecSelectionChangeEven
     private WritableMap serializeEventData() {
         WritableMap eventData = Arguments.createMap();
         eventData.putInt("target", getViewTag());
-        eventData.putString("text", mText);
+        if (mText != null) {
+            eventData.putString("text", mText);
+        }
         eventData.putInt("selectionStart", mSelectionStart);
         eventData.putInt("selectionEnd", mSelectionEnd);
         eventData.putInt("eventCount", mEventCount);
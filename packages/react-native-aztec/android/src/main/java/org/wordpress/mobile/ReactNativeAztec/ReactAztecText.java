@@ -10,13 +10,17 @@ import android.content.res.TypedArray;
 import android.graphics.PorterDuff;
 import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
+import android.text.SpanWatcher;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.Editable;
 import android.text.InputType;
+import android.text.NoCopySpan;
 import android.text.Spannable;
+import android.text.Spanned;
 import android.text.TextUtils;
 import android.text.TextWatcher;
+import android.view.Choreographer;
 import android.view.View;
 import android.view.ViewTreeObserver;
 import android.view.inputmethod.InputMethodManager;
@@ -27,10 +31,12 @@ import androidx.annotation.Nullable;
 
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.UIManagerModule;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.views.textinput.ContentSizeWatcher;
+import com.facebook.react.views.textinput.ReactTextInputEvent;
 import com.facebook.react.views.textinput.ReactTextInputLocalData;
 import com.facebook.react.views.textinput.ScrollWatcher;
 
@@ -66,6 +72,18 @@ public class ReactAztecText extends AztecText {
     private @Nullable ContentSizeWatcher mContentSizeWatcher;
     private @Nullable ScrollWatcher mScrollWatcher;
     private @Nullable Runnable mKeyboardRunnable;
+    private final IncrementalHtmlSerializer mIncrementalHtmlSerializer = new IncrementalHtmlSerializer(
+            new IncrementalHtmlSerializer.Source() {
+                @Override
+                public Editable getText() {
+                    return ReactAztecText.this.getText();
+                }
+
+                @Override
+                public String toHtml(Spannable text) {
+                    return ReactAztecText.this.toHtml(text, false);
+                }
+            });
 
     // FIXME: Used in `incrementAndGetEventCounter` but never read. I guess we can get rid of it, but before this
     // check when it's used in EditText in RN. (maybe tests?)
@@ -81,6 +99,68 @@ public class ReactAztecText extends AztecText {
 
     boolean shouldDeleteEnter = false;
 
+    // When set, change events only carry the difference with the HTML of the previous change event.
+    boolean shouldSendTextDeltas = false;
+    private @Nullable String mLastChangeEventHtml = null;
+    private int mLastChangeEventCount = 0;
+
+    // When set, change events carry the text input data instead of sending a separate topTextInput event.
+    boolean shouldMergeTextInputEvents = false;
+    // Number of frames text changes are held back, to report a burst of edits in a single change event. With 0,
+    // every change is sent right away.
+    int textChangeCoalescingFrames = 0;
+    private final TextChangeBurst mTextChangeBurst = new TextChangeBurst();
+    private boolean mHasPendingTextChange = false;
+    private int mFramesUntilTextChangeFlush = 0;
+    private final Choreographer.FrameCallback mTextChangeFlushCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (--mFramesUntilTextChangeFlush > 0) {
+                Choreographer.getInstance().postFrameCallback(this);
+                return;
+            }
+            flushPendingTextChange();
+        }
+    };
+
+    // When set, selection change events only carry the HTML if the content changed since it was last sent to JS.
+    boolean shouldSendSelectionTextOnlyIfChanged = false;
+    // Bumped on every change of the content, text or formatting, including the ones made by JS.
+    private int mContentGeneration = 0;
+    private int mLastSentContentGeneration = -1;
+    private @Nullable Editable mGenerationWatchedText;
+    private final ContentSpanWatcher mContentSpanWatcher = new ContentSpanWatcher();
+    // The last edit, until the end of the current message loop: the spans it moved don't count as a change.
+    private int mLastEditStart = -1;
+    private int mLastEditBefore;
+    private int mLastEditCount;
+    private boolean mIsLastEditClearPosted = false;
+    private final Runnable mClearLastEditRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mIsLastEditClearPosted = false;
+            mLastEditStart = -1;
+        }
+    };
+
+    // The HTML of the content at mCachedHtmlGeneration, shared by all the events sent for that state
+    private @Nullable String mCachedHtml;
+    private int mCachedHtmlGeneration;
+    private int mHtmlCacheHits = 0;
+    private int mHtmlCacheMisses = 0;
+    // Shared by the views of the same package, set by ReactAztecManager
+    AztecHtmlMetrics htmlMetrics = new AztecHtmlMetrics();
+
+    // HTML set from JS that is at least this long skips the work only needed for a new editor, 0 to never skip it.
+    int largeTextLength = 0;
+    // Whether the props of the mount were all applied, and until then the text JS set
+    boolean hasInitialProps = false;
+    @Nullable ReadableMap initialTextFromJS;
+    // The HTML last set from JS, and the content generation right after it was parsed
+    private @Nullable String mLastHtmlFromJS;
+    private int mLastHtmlFromJSGeneration;
+    private int mSkippedFromHtmlCount = 0;
+
     // This optional variable holds the outer HTML tag that will be added to the text when the user start typing in it
     // This is required to keep placeholder text working, and start typing with styled text.
     // Ref: https://github.com/wordpress-mobile/gutenberg-mobile/issues/707
@@ -122,7 +202,7 @@ public class ReactAztecText extends AztecText {
             @Override
             public boolean onBackspaceKey() {
                 if (shouldHandleOnBackspace && !isTextChangedListenerDisabled()) {
-                    String content = toHtml(getText(), false);
+                    String content = getCurrentHtml();
                     if (TextUtils.isEmpty(content)) {
                         return onBackspace();
                     }
@@ -416,7 +496,12 @@ public class ReactAztecText extends AztecText {
         if (!shouldHandleOnSelectionChange) {
             return;
         }
-        String content = toHtml(getText(), false);
+        flushPendingTextChange();
+        String content = null;
+        if (!shouldSendSelectionTextOnlyIfChanged || mLastSentContentGeneration != mContentGeneration) {
+            content = getCurrentHtml();
+            mLastSentContentGeneration = mContentGeneration;
+        }
         ReactContext reactContext = (ReactContext) getContext();
         EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
         eventDispatcher.dispatchEvent(
@@ -424,6 +509,13 @@ public class ReactAztecText extends AztecText {
         );
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        flushPendingTextChange();
+        logHtmlStats();
+        super.onDetachedFromWindow();
+    }
+
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         onContentSizeChange();
@@ -444,6 +536,8 @@ public class ReactAztecText extends AztecText {
 
     public void setEventCounterSyncFromJS(int syncToValue) {
         mEventCountSyncFromJS = syncToValue;
+        // JS is forcing its own content, don't assume it still has the HTML of our last change event
+        mLastChangeEventHtml = null;
     }
 
     public int incrementAndGetEventCounter() {
@@ -496,13 +590,267 @@ public class ReactAztecText extends AztecText {
         return mTextWatcherDelegator;
     }
 
+    /**
+     * Same result as {@code toHtml(getText(), false)}, but only the parts of the text edited since the previous call
+     * get serialized again. Meant for the events sent on every keystroke.
+     */
+    String toHtmlIncrementally() {
+        return mIncrementalHtmlSerializer.toHtml();
+    }
+
+    /**
+     * Creates the change event for the given HTML. With text deltas enabled, the event only describes how the
+     * HTML changed since the previous change event, unless there isn't one JS is known to have.
+     */
+    private AztecReactTextChangedEvent createTextChangedEvent(String html, int eventCount,
+                                                              @Nullable Character mostRecentChar,
+                                                              @Nullable TextInputChange textInput) {
+        AztecReactTextChangedEvent event;
+        if (shouldSendTextDeltas && mLastChangeEventHtml != null) {
+            event = new AztecReactTextChangedEvent(getId(), null, eventCount, mostRecentChar,
+                    HtmlDelta.between(mLastChangeEventHtml, html, mLastChangeEventCount), textInput);
+        } else {
+            event = new AztecReactTextChangedEvent(getId(), html, eventCount, mostRecentChar, null, textInput);
+        }
+        mLastChangeEventHtml = shouldSendTextDeltas ? html : null;
+        mLastChangeEventCount = eventCount;
+        return event;
+    }
+
+    /**
+     * Sends the change event for the current content, followed by the text input event unless it's merged in.
+     */
+    void dispatchTextChangedEvents(int eventCount, @Nullable Character mostRecentChar, TextInputChange textInput) {
+        mLastSentContentGeneration = mContentGeneration;
+        dispatchTextChangedEvents(getCurrentHtml(), eventCount, mostRecentChar, textInput);
+    }
+
+    private void dispatchTextChangedEvents(String html, int eventCount, @Nullable Character mostRecentChar,
+                                           TextInputChange textInput) {
+        ReactContext reactContext = (ReactContext) getContext();
+        EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
+        // The event that contains the event counter and updates it must be sent first.
+        eventDispatcher.dispatchEvent(createTextChangedEvent(html, eventCount, mostRecentChar,
+                shouldMergeTextInputEvents ? textInput : null));
+        if (!shouldMergeTextInputEvents) {
+            eventDispatcher.dispatchEvent(new ReactTextInputEvent(getId(), textInput.getText(),
+                    textInput.getPreviousText(), textInput.getRangeStart(), textInput.getRangeEnd()));
+        }
+    }
+
+    /**
+     * Sends the full content in a change event, used when JS could not apply a delta.
+     */
+    void sendTextSnapshot() {
+        flushPendingTextChange();
+        mLastChangeEventHtml = null;
+        mLastSentContentGeneration = mContentGeneration;
+        ReactContext reactContext = (ReactContext) getContext();
+        EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
+        eventDispatcher.dispatchEvent(
+                createTextChangedEvent(getCurrentHtml(), incrementAndGetEventCounter(), null, null));
+    }
+
+    //// Text change coalescing
+
+    boolean isCoalescingTextChanges() {
+        return textChangeCoalescingFrames > 0;
+    }
+
+    void beforeTextChangedForBurst(CharSequence s, int start, int count, int after) {
+        mTextChangeBurst.beforeTextChanged(s, start, count, after);
+    }
+
+    void onTextChangedForBurst(@Nullable Character addedChar) {
+        mTextChangeBurst.onTextChanged(addedChar);
+    }
+
+    /**
+     * Marks the current burst of edits as needing a change event, sent once {@link #textChangeCoalescingFrames}
+     * frames have passed since the first edit of the burst. Characters other than letters and digits are sent right
+     * away, since JS may be waiting for them (e.g. the trigger keys of autocompleters).
+     */
+    void queueTextChange(@Nullable Character mostRecentChar) {
+        mHasPendingTextChange = true;
+        if (mostRecentChar != null && !Character.isLetterOrDigit(mostRecentChar)) {
+            flushPendingTextChange();
+        } else if (mFramesUntilTextChangeFlush == 0) {
+            mFramesUntilTextChangeFlush = textChangeCoalescingFrames;
+            Choreographer.getInstance().postFrameCallback(mTextChangeFlushCallback);
+        }
+    }
+
+    /**
+     * Sends the change event for the edits held back, if any. Called before any other event about the content, so
+     * JS always gets the changes first.
+     */
+    void flushPendingTextChange() {
+        flushPendingTextChange(getText(), null);
+    }
+
+    private void flushPendingTextChange(Spanned text, @Nullable String html) {
+        cancelTextChangeFlush();
+        if (!mHasPendingTextChange || mTextChangeBurst.isEmpty()) {
+            mHasPendingTextChange = false;
+            mTextChangeBurst.reset();
+            return;
+        }
+
+        int start = Math.min(mTextChangeBurst.getStart(), text.length());
+        int end = Math.min(mTextChangeBurst.getEnd(), text.length());
+        String previousText = mTextChangeBurst.getPreviousText();
+        TextInputChange textInput = new TextInputChange(text.subSequence(start, end).toString(), previousText,
+                start, start + previousText.length());
+        Character mostRecentChar = mTextChangeBurst.getLastAddedChar();
+        mHasPendingTextChange = false;
+        mTextChangeBurst.reset();
+
+        if (html == null) {
+            mLastSentContentGeneration = mContentGeneration;
+            html = getCurrentHtml();
+        }
+        dispatchTextChangedEvents(html, incrementAndGetEventCounter(), mostRecentChar, textInput);
+    }
+
+    private void cancelTextChangeFlush() {
+        if (mFramesUntilTextChangeFlush > 0) {
+            mFramesUntilTextChangeFlush = 0;
+            Choreographer.getInstance().removeFrameCallback(mTextChangeFlushCallback);
+        }
+    }
+
+    //// Content generation
+
+    private void onContentChanged(int start, int before, int count) {
+        mContentGeneration++;
+        mLastEditStart = start;
+        mLastEditBefore = before;
+        mLastEditCount = count;
+        if (!mIsLastEditClearPosted) {
+            mIsLastEditClearPosted = true;
+            post(mClearLastEditRunnable);
+        }
+
+        Editable text = getText();
+        if (text != mGenerationWatchedText) {
+            // The whole Editable gets replaced when the content is set with fromHtml
+            if (mGenerationWatchedText != null) {
+                mGenerationWatchedText.removeSpan(mContentSpanWatcher);
+            }
+            mGenerationWatchedText = text;
+            text.setSpan(mContentSpanWatcher, 0, text.length(), Spanned.SPAN_INCLUSIVE_INCLUSIVE);
+        }
+    }
+
+    /**
+     * Formatting can change without the text changing, this catches the changes of the spans that end up in the HTML.
+     */
+    private class ContentSpanWatcher implements SpanWatcher, NoCopySpan {
+        @Override
+        public void onSpanAdded(Spannable text, Object what, int start, int end) {
+            onSpanChanged(text, what);
+        }
+
+        @Override
+        public void onSpanRemoved(Spannable text, Object what, int start, int end) {
+            onSpanChanged(text, what);
+        }
+
+        @Override
+        public void onSpanChanged(Spannable text, Object what, int ostart, int oend, int nstart, int nend) {
+            if (isMovedByLastEdit(ostart, nstart) && isMovedByLastEdit(oend, nend)) {
+                // Already counted by onTextChanged
+                return;
+            }
+            onSpanChanged(text, what);
+        }
+
+        private boolean isMovedByLastEdit(int oldPosition, int newPosition) {
+            if (mLastEditStart < 0) {
+                return false;
+            }
+            if (oldPosition < mLastEditStart) {
+                return newPosition == oldPosition;
+            }
+            if (oldPosition > mLastEditStart + mLastEditBefore) {
+                return newPosition == oldPosition + mLastEditCount - mLastEditBefore;
+            }
+            return newPosition >= mLastEditStart && newPosition <= mLastEditStart + mLastEditCount;
+        }
+
+        private void onSpanChanged(Spannable text, Object what) {
+            // selection, watchers and IME state aren't part of the HTML
+            if (!(what instanceof NoCopySpan) && (text.getSpanFlags(what) & Spanned.SPAN_COMPOSING) == 0) {
+                mContentGeneration++;
+            }
+        }
+    }
+
+    //// Serialized HTML cache
+
+    /**
+     * The HTML of the current content. It's only serialized again when the content changed since the previous
+     * call, so all the events sent for the same state of the content share it.
+     */
+    String getCurrentHtml() {
+        // Without the text watchers in place, changes aren't tracked
+        boolean isTracked = mListeners != null && getText() == mGenerationWatchedText;
+        if (isTracked && mCachedHtml != null && mCachedHtmlGeneration == mContentGeneration) {
+            mHtmlCacheHits++;
+            htmlMetrics.onHtmlCacheHit();
+            return mCachedHtml;
+        }
+
+        mHtmlCacheMisses++;
+        htmlMetrics.onHtmlCacheMiss();
+        String html = toHtmlIncrementally();
+        mCachedHtml = isTracked ? html : null;
+        mCachedHtmlGeneration = mContentGeneration;
+        return html;
+    }
+
+    private void logHtmlStats() {
+        if (mHtmlCacheHits + mHtmlCacheMisses + mSkippedFromHtmlCount == 0) {
+            return;
+        }
+        AppLog.d(AppLog.T.EDITOR, "ReactAztecText serialized its HTML " + mHtmlCacheMisses + " times, reused it "
+                + mHtmlCacheHits + " times, skipped parsing the HTML from JS " + mSkippedFromHtmlCount + " times");
+    }
+
+    /**
+     * Whether the content already is this HTML: either JS set it last, or it's the HTML we last serialized, and the
+     * content didn't change since. This never serializes the content to find out.
+     */
+    boolean hasSameContentAs(String html) {
+        if (mListeners == null || getText() != mGenerationWatchedText) {
+            return false;
+        }
+        if (mLastHtmlFromJSGeneration == mContentGeneration && html.equals(mLastHtmlFromJS)) {
+            return true;
+        }
+        return mCachedHtmlGeneration == mContentGeneration && html.equals(mCachedHtml);
+    }
+
+    void onHtmlSetFromJS(String html) {
+        mLastHtmlFromJS = html;
+        mLastHtmlFromJSGeneration = mContentGeneration;
+    }
+
+    void onFromHtmlSkipped() {
+        mSkippedFromHtmlCount++;
+        htmlMetrics.onFromHtmlSkipped();
+    }
+
     public void setIsSettingTextFromJS(boolean mIsSettingTextFromJS) {
         this.mIsSettingTextFromJS = mIsSettingTextFromJS;
     }
 
     private boolean onEnter(Spannable text, boolean firedAfterTextChanged, int selStart, int selEnd) {
         disableTextChangedListener();
-        String content = toHtml(text, false);
+        String content = text == getText() ? getCurrentHtml() : toHtml(text, false);
+        // JS splits the content it has, so it must get the edits held back first. The text passed here doesn't
+        // contain the new line yet, like the burst.
+        flushPendingTextChange(text, content);
         int cursorPositionStart = firedAfterTextChanged ? selStart : getSelectionStart();
         int cursorPositionEnd = firedAfterTextChanged ? selEnd : getSelectionEnd();
         enableTextChangedListener();
@@ -523,8 +871,9 @@ public class ReactAztecText extends AztecText {
             return false;
         }
 
+        flushPendingTextChange();
         disableTextChangedListener();
-        String content = toHtml(getText(), false);
+        String content = getCurrentHtml();
         enableTextChangedListener();
         ReactContext reactContext = (ReactContext) getContext();
         EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
@@ -564,9 +913,10 @@ public class ReactAztecText extends AztecText {
             }
         }
 
-        // temporarily disable listener during call to toHtml()
+        flushPendingTextChange();
+        // temporarily disable listener during call to getCurrentHtml()
         disableTextChangedListener();
-        String content = toHtml(getText(), false);
+        String content = getCurrentHtml();
         int cursorPositionStart = getSelectionStart();
         int cursorPositionEnd = getSelectionEnd();
         enableTextChangedListener();
@@ -635,6 +985,9 @@ public class ReactAztecText extends AztecText {
 
         @Override
         public void onTextChanged(CharSequence s, int start, int before, int count) {
+            // Counted even when the text is set from JS, the HTML JS sent isn't necessarily what Aztec produces
+            onContentChanged(start, before, count);
+
             if (shouldDelegateTextChangeCalls()) {
                 for (TextWatcher listener : mListeners) {
                     listener.onTextChanged(s, start, before, count);
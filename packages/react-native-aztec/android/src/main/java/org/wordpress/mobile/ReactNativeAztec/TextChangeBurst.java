@@ -0,0 +1,112 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Accumulates consecutive edits (e.g. an autocorrection, a swipe-typed word or an IME replacing the composing text)
+ * into a single replaced range, so they can be reported in one change event.
+ *
+ * The burst covers [{@link #getStart()}, {@link #getEnd()}) of the current text, which replaced
+ * {@link #getPreviousText()} in the text as it was when the burst started. Only the edited ranges are copied, never
+ * the whole text.
+ *
+ * Each edit is announced by {@link #beforeTextChanged} and applied to the burst by {@link #onTextChanged}, the same
+ * way {@link android.text.TextWatcher} gets called. If the burst is {@link #reset()} in between, the edit starts a
+ * new burst on its own.
+ */
+class TextChangeBurst {
+
+    private int mStart = -1;
+    private int mEnd = -1;
+    private final StringBuilder mPreviousText = new StringBuilder();
+    private @Nullable Character mLastAddedChar;
+    private int mGeneration = 0;
+
+    // The edit announced by beforeTextChanged and not yet applied
+    private boolean mHasPendingEdit = false;
+    private int mPendingGeneration;
+    private int mEditStart;
+    private int mEditCount;
+    private int mEditAfter;
+    private String mEditReplacedText = "";
+    // Text of the old content found before and after the burst, that the pending edit also replaced
+    private String mReplacedBeforeBurst = "";
+    private String mReplacedAfterBurst = "";
+
+    boolean isEmpty() {
+        return mStart < 0;
+    }
+
+    int getStart() {
+        return mStart;
+    }
+
+    int getEnd() {
+        return mEnd;
+    }
+
+    String getPreviousText() {
+        return mPreviousText.toString();
+    }
+
+    /**
+     * The character added by the last edit of the burst, if that edit added a single character.
+     */
+    @Nullable Character getLastAddedChar() {
+        return mLastAddedChar;
+    }
+
+    void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        if (mHasPendingEdit) {
+            // Nested edit made by a watcher while handling the previous one, which is already in the text
+            onTextChanged(null);
+        }
+
+        mHasPendingEdit = true;
+        mPendingGeneration = mGeneration;
+        mEditStart = start;
+        mEditCount = count;
+        mEditAfter = after;
+        mEditReplacedText = s.subSequence(start, start + count).toString();
+        if (isEmpty()) {
+            mReplacedBeforeBurst = "";
+            mReplacedAfterBurst = "";
+        } else {
+            // These also contain the unchanged text between the edit and the burst, if they don't touch
+            mReplacedBeforeBurst = start < mStart ? s.subSequence(start, mStart).toString() : "";
+            int editEnd = start + count;
+            mReplacedAfterBurst = editEnd > mEnd ? s.subSequence(mEnd, editEnd).toString() : "";
+        }
+    }
+
+    void onTextChanged(@Nullable Character addedChar) {
+        if (!mHasPendingEdit) {
+            return;
+        }
+        mHasPendingEdit = false;
+
+        if (isEmpty() || mPendingGeneration != mGeneration) {
+            mStart = mEditStart;
+            mEnd = mEditStart + mEditAfter;
+            mPreviousText.setLength(0);
+            mPreviousText.append(mEditReplacedText);
+        } else {
+            int editEnd = mEditStart + mEditCount;
+            mEnd = Math.max(editEnd, mEnd) + mEditAfter - mEditCount;
+            mStart = Math.min(mEditStart, mStart);
+            mPreviousText.insert(0, mReplacedBeforeBurst).append(mReplacedAfterBurst);
+        }
+        mLastAddedChar = addedChar;
+        mEditReplacedText = "";
+        mReplacedBeforeBurst = "";
+        mReplacedAfterBurst = "";
+    }
+
+    void reset() {
+        mStart = -1;
+        mEnd = -1;
+        mPreviousText.setLength(0);
+        mLastAddedChar = null;
+        mGeneration++;
+    }
+}
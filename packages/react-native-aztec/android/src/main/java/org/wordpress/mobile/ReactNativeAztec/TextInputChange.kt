@@ -0,0 +1,50 @@
+package org.wordpress.mobile.ReactNativeAztec
+
+import com.facebook.react.bridge.Arguments
+import com.facebook.react.bridge.WritableMap
+
+/**
+ * The data of a [com.facebook.react.views.textinput.ReactTextInputEvent]: [previousText], found between
+ * [rangeStart] and [rangeEnd] in the old text, was replaced with [text].
+ */
+data class TextInputChange(
+    val text: String,
+    val previousText: String,
+    val rangeStart: Int,
+    val rangeEnd: Int
+) {
+    fun toWritableMap(): WritableMap =
+            Arguments.createMap().apply {
+                putString("text", text)
+                putString("previousText", previousText)
+                putMap("range", Arguments.createMap().apply {
+                    putInt("start", rangeStart)
+                    putInt("end", rangeEnd)
+                })
+            }
+
+    /**
+     * Combines this change with [next], which was applied on the text resulting from this one, into a single
+     * change over the original text. Returns null when the two changes don't touch, since the text between them
+     * isn't known here.
+     */
+    fun followedBy(next: TextInputChange): TextInputChange? {
+        val insertedEnd = rangeStart + text.length
+        if (next.rangeStart > insertedEnd || next.rangeEnd < rangeStart) {
+            return null
+        }
+
+        val start = minOf(rangeStart, next.rangeStart)
+        // parts of the next change's replaced text that lie outside of this change's inserted text
+        val before = next.previousText.substring(0, maxOf(0, rangeStart - next.rangeStart))
+        val after = next.previousText.substring(
+                minOf(next.previousText.length, maxOf(0, insertedEnd - next.rangeStart)))
+
+        val intermediate = before + text + after
+        val combinedText = intermediate.substring(0, next.rangeStart - start) + next.text +
+                intermediate.substring(next.rangeEnd - start)
+        val combinedPreviousText = before + previousText + after
+
+        return TextInputChange(combinedText, combinedPreviousText, start, start + combinedPreviousText.length)
+    }
+}
@@ -18,7 +18,7 @@ interface EnterDeleter {
 class EnterPressedWatcher(aztecText: AztecText, var enterDeleter: EnterDeleter) : TextWatcher {
 
     private val aztecTextRef: WeakReference<AztecText?> = WeakReference(aztecText)
-    private lateinit var textBefore: SpannableStringBuilder
+    private var lengthBefore: Int = -1
     private var start: Int = -1
     private var selStart: Int = 0
     private var selEnd: Int = 0
@@ -30,8 +30,8 @@ class EnterPressedWatcher(aztecText: AztecText, var enterDeleter: EnterDeleter)
     override fun beforeTextChanged(text: CharSequence, start: Int, count: Int, after: Int) {
         val aztecText = aztecTextRef.get()
         if (aztecText?.getAztecKeyListener() != null && !aztecText.isTextChangedListenerDisabled()) {
-            // we need to make a copy to preserve the contents as they were before the change
-            textBefore = SpannableStringBuilder(text)
+            // only the length is needed to tell a single character was added, no need to copy the text
+            lengthBefore = text.length
             this.start = start
             this.selStart = aztecText.selectionStart
             this.selEnd = aztecText.selectionEnd
@@ -49,31 +49,18 @@ class EnterPressedWatcher(aztecText: AztecText, var enterDeleter: EnterDeleter)
         val aztecText = aztecTextRef.get()
         val aztecKeyListener = aztecText?.getAztecKeyListener()
         if (aztecText != null && !aztecText.isTextChangedListenerDisabled() && aztecKeyListener != null) {
-            val newTextCopy = SpannableStringBuilder(text)
-
-            var gboardOffset = this.start
-            // If gboard replacement is happening, we offset the start position by the length
-            // of the gboard replacement
-            if (gboardReplacement != null) {
-                val gboardRestored = newTextCopy.subSequence(start, start + before)
-                if (gboardRestored.toString() == gboardReplacement.toString()) {
-                    gboardOffset += gboardRestored.length
-                }
-            }
-
-            // if new text length is longer than original text by 1
-            if (textBefore?.length == newTextCopy.length - 1) {
-                // now check that the inserted character is actually a NEWLINE
-                if (newTextCopy[gboardOffset] == Constants.NEWLINE) {
-                    done = false
-                    aztecText.editableText.setSpan(EnterPressedUnderway(), 0, 0, Spanned.SPAN_USER)
-                    aztecKeyListener.onEnterKey(
-                            newTextCopy.replace(gboardOffset, gboardOffset + 1, ""),
-                            true,
-                            selStart,
-                            selEnd
-                    )
-                }
+            val newlineOffset = findInsertedNewline(text, lengthBefore, this.start, start, before, gboardReplacement)
+            if (newlineOffset >= 0) {
+                // Only copy the text now, the listener gets the content without the NEWLINE
+                val newTextCopy = SpannableStringBuilder(text)
+                done = false
+                aztecText.editableText.setSpan(EnterPressedUnderway(), 0, 0, Spanned.SPAN_USER)
+                aztecKeyListener.onEnterKey(
+                        newTextCopy.replace(newlineOffset, newlineOffset + 1, ""),
+                        true,
+                        selStart,
+                        selEnd
+                )
             }
         }
     }
@@ -96,5 +83,48 @@ class EnterPressedWatcher(aztecText: AztecText, var enterDeleter: EnterDeleter)
         fun isEnterPressedUnderway(spanned: Spanned?): Boolean {
             return spanned?.getSpans(0, 0, EnterPressedUnderway::class.java)?.isNotEmpty() ?: false
         }
+
+        /**
+         * Returns the offset of the NEWLINE added by a change, or -1 if the change didn't add a single NEWLINE.
+         * [text] is the text after the change, [lengthBefore] its length before the change and [changeStart] where
+         * the change started, as reported by beforeTextChanged. Only the changed range is inspected.
+         */
+        @JvmStatic
+        fun findInsertedNewline(
+            text: CharSequence,
+            lengthBefore: Int,
+            changeStart: Int,
+            start: Int,
+            before: Int,
+            gboardReplacement: CharSequence?
+        ): Int {
+            // the new text must be longer than the original text by 1
+            if (lengthBefore < 0 || text.length != lengthBefore + 1) {
+                return -1
+            }
+
+            var gboardOffset = changeStart
+            // If gboard replacement is happening, we offset the start position by the length
+            // of the gboard replacement
+            if (gboardReplacement != null && before == gboardReplacement.length &&
+                    regionMatches(text, start, gboardReplacement)) {
+                gboardOffset += before
+            }
+
+            // now check that the inserted character is actually a NEWLINE
+            return if (gboardOffset < text.length && text[gboardOffset] == Constants.NEWLINE) gboardOffset else -1
+        }
+
+        private fun regionMatches(text: CharSequence, offset: Int, other: CharSequence): Boolean {
+            if (offset < 0 || offset + other.length > text.length) {
+                return false
+            }
+            for (i in other.indices) {
+                if (text[offset + i] != other[i]) {
+                    return false
+                }
+            }
+            return true
+        }
     }
 }
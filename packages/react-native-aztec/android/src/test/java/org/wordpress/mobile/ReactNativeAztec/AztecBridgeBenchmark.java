@@ -0,0 +1,269 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.app.Application;
+import android.content.ClipData;
+import android.content.ClipboardManager;
+import android.content.Context;
+import android.text.Editable;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.UIManagerModule;
+import com.facebook.react.uimanager.events.EventDispatcher;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks the hot paths of the Aztec bridge, over blocks from 100 to 100k characters: a ReactAztecText created by
+ * ReactAztecManager, with the events going to a mocked EventDispatcher. Robolectric doesn't time like a device, the
+ * numbers are meant to catch regressions from one run to the next.
+ *
+ * Not part of the regular test run, use: ./gradlew testDebugUnitTest -Pbenchmarks
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AztecBridgeBenchmark {
+
+    private static final int[] SIZES = {100, 1000, 10000, 50000, 100000};
+
+    private final BenchmarkRunner mRunner = new BenchmarkRunner(10, 50);
+    private final FakeHtmlText mFakeText = new FakeHtmlText();
+
+    private ReactAztecManager mManager;
+    private ReactAztecText mView;
+    private EventDispatcher mEventDispatcher;
+
+    @Before
+    public void setUp() {
+        Application application = RuntimeEnvironment.getApplication();
+        ThemedReactContext reactContext =
+                spy(new ThemedReactContext(new ReactApplicationContext(application), application));
+        UIManagerModule uiManager = mock(UIManagerModule.class);
+        mEventDispatcher = mock(EventDispatcher.class);
+        when(uiManager.getEventDispatcher()).thenReturn(mEventDispatcher);
+        doReturn(uiManager).when(reactContext).getNativeModule(UIManagerModule.class);
+
+        mManager = new ReactAztecManager(null, null);
+        mView = mManager.createViewInstance(reactContext);
+        mManager.addEventEmitters(reactContext, mView);
+        // All the props of the mount are set
+        mView.hasInitialProps = true;
+    }
+
+    private String htmlOfLength(int size) {
+        mFakeText.fill(size);
+        return mFakeText.toFullHtml();
+    }
+
+    private void setTextFromJS(String html) {
+        // JS always has the latest content here, so its text is never stale
+        mManager.setText(mView, JavaOnlyMap.of("text", html, "eventCount", mView.getEventCounter() + 1));
+        ShadowLooper.idleMainLooper();
+    }
+
+    /**
+     * ReactAztecManager.setText: JS echoing the HTML it got from us is recognized and not parsed again, any other
+     * HTML is.
+     */
+    @Test
+    public void benchmarkSetText() {
+        for (final int size : SIZES) {
+            final String html = htmlOfLength(size);
+            final String otherHtml = html.substring(1);
+            setTextFromJS(html);
+
+            final Editable text = mView.getText();
+            mRunner.measure("setText (echo, skipped)", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    // a different instance, as it comes from the bridge
+                    setTextFromJS(new String(html.toCharArray()));
+                }
+            });
+            assertSame(text, mView.getText());
+
+            mRunner.measure("setText (parsed)", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    setTextFromJS(iteration % 2 == 0 ? otherHtml : html);
+                }
+            });
+            assertNotSame(text, mView.getText());
+        }
+    }
+
+    /**
+     * A keystroke in the middle of the block, through Aztec's and the bridge's text watchers (AztecTextWatcher and
+     * its change event). Even iterations type a character, odd ones delete it, so the size stays the same.
+     */
+    @Test
+    public void benchmarkOnTextChanged() {
+        for (final int size : SIZES) {
+            setTextFromJS(htmlOfLength(size));
+            final int position = mView.length() / 2;
+
+            mRunner.measure("onTextChanged", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    typeOrDelete(position, iteration);
+                }
+            });
+        }
+        verify(mEventDispatcher, atLeastOnce()).dispatchEvent(any(AztecReactTextChangedEvent.class));
+    }
+
+    private void typeOrDelete(int position, int iteration) {
+        if (iteration % 2 == 0) {
+            mView.getText().insert(position, "a");
+        } else {
+            mView.getText().delete(position, position + 1);
+        }
+        ShadowLooper.idleMainLooper();
+    }
+
+    /**
+     * IncrementalHtmlSerializer alone, with Aztec's serialization, on a copy of the content of the view: a keystroke in
+     * the middle of the block, then the HTML. One call in {@link IncrementalHtmlSerializer#VALIDATION_INTERVAL} also
+     * serializes the whole text to validate the result, the iterations are a multiple of it so the time per keystroke
+     * is the amortized one, validation included.
+     */
+    @Test
+    public void benchmarkIncrementalHtmlSerializer() {
+        final int interval = IncrementalHtmlSerializer.VALIDATION_INTERVAL;
+        BenchmarkRunner runner = new BenchmarkRunner(interval, 8 * interval);
+        BenchmarkRunner.Result incremental = null;
+        BenchmarkRunner.Result full = null;
+        for (final int size : SIZES) {
+            setTextFromJS(htmlOfLength(size));
+            final Editable text = new SpannableStringBuilder(mView.getText());
+            final IncrementalHtmlSerializer serializer = new IncrementalHtmlSerializer(
+                    new IncrementalHtmlSerializer.Source() {
+                        @Override
+                        public Editable getText() {
+                            return text;
+                        }
+
+                        @Override
+                        public String toHtml(Spannable spannable) {
+                            return mView.toHtml(spannable, false);
+                        }
+                    });
+            final int position = text.length() / 2;
+
+            incremental = runner.measure("toHtml (incremental)", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    if (iteration % 2 == 0) {
+                        text.insert(position, "a");
+                    } else {
+                        text.delete(position, position + 1);
+                    }
+                    serializer.toHtml();
+                }
+            });
+            assertEquals(mView.toHtml(text, false), serializer.toHtml());
+
+            full = runner.measure("toHtml (full)", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    mView.toHtml(text, false);
+                }
+            });
+        }
+        System.out.println(String.format(Locale.US, "toHtml (incremental) at size=%d: %d ns/op amortized, including "
+                + "%d ns/op for the full serialization validating one call in %d", incremental.size,
+                incremental.nanosPerOp, full.nanosPerOp / interval, interval));
+    }
+
+    /**
+     * ReactAztecText.propagateSelectionChanges while moving the caret: the content didn't change, so its HTML comes
+     * from the per-view cache.
+     */
+    @Test
+    public void benchmarkPropagateSelectionChanges() {
+        mManager.setOnSelectionChange(mView, true);
+        for (final int size : SIZES) {
+            setTextFromJS(htmlOfLength(size));
+            final int position = mView.length() / 2;
+
+            mRunner.measure("propagateSelectionChanges", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    mView.setSelection(position + iteration % 2);
+                    ShadowLooper.idleMainLooper();
+                }
+            });
+        }
+        verify(mEventDispatcher, atLeastOnce()).dispatchEvent(any(ReactAztecSelectionChangeEvent.class));
+    }
+
+    /**
+     * ReactAztecText.onEnter: Enter in the middle of the block, found by EnterPressedWatcher and reported with the
+     * content without the NEWLINE, which is then deleted like with the deleteEnter prop.
+     */
+    @Test
+    public void benchmarkOnEnter() {
+        mManager.setOnEnterHandling(mView, true);
+        mManager.setShouldDeleteEnter(mView, true);
+        for (final int size : SIZES) {
+            setTextFromJS(htmlOfLength(size));
+            final int position = mView.length() / 2;
+
+            mRunner.measure("onEnter", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    mView.setSelection(position);
+                    mView.getText().insert(position, "\n");
+                    ShadowLooper.idleMainLooper();
+                }
+            });
+        }
+        verify(mEventDispatcher, atLeastOnce()).dispatchEvent(any(ReactAztecEnterEvent.class));
+    }
+
+    /**
+     * ReactAztecText.onPaste right after a keystroke: the HTML of the content, where only the edited part needs to be
+     * serialized again. Compare with onTextChanged for the cost of the keystroke itself.
+     */
+    @Test
+    public void benchmarkOnPaste() {
+        mManager.setOnPasteHandling(mView, true);
+        ClipboardManager clipboardManager =
+                (ClipboardManager) RuntimeEnvironment.getApplication().getSystemService(Context.CLIPBOARD_SERVICE);
+        clipboardManager.setPrimaryClip(ClipData.newPlainText("pasted", "pasted text"));
+        for (final int size : SIZES) {
+            setTextFromJS(htmlOfLength(size));
+            final int position = mView.length() / 2;
+
+            mRunner.measure("onPaste", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    typeOrDelete(position, iteration);
+                    mView.onTextContextMenuItem(android.R.id.paste);
+                    ShadowLooper.idleMainLooper();
+                }
+            });
+        }
+        verify(mEventDispatcher, atLeastOnce()).dispatchEvent(any(ReactAztecPasteEvent.class));
+    }
+}
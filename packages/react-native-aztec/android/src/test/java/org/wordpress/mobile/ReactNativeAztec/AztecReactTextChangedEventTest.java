@@ -0,0 +1,78 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+// Robolectric for the clock read by the constructor of Event
+@RunWith(RobolectricTestRunner.class)
+public class AztecReactTextChangedEventTest {
+
+    private static final int VIEW_ID = 1;
+
+    private static AztecReactTextChangedEvent event(String text, int eventCount, TextInputChange textInput) {
+        return new AztecReactTextChangedEvent(VIEW_ID, text, eventCount, null, null, textInput);
+    }
+
+    @Test
+    public void testConsecutiveTouchingInputsAreMerged() {
+        TextInputChange first = new TextInputChange("a", "", 5, 5);
+        TextInputChange second = new TextInputChange("b", "", 6, 6);
+
+        AztecReactTextChangedEvent coalesced = event("<p>helloab</p>", 2, second).coalesce(event("<p>helloa</p>", 1,
+                first));
+
+        assertEquals(Collections.singletonList(new TextInputChange("ab", "", 5, 5)), coalesced.getTextInputs());
+    }
+
+    @Test
+    public void testNonConsecutiveInputsAreBothKept() {
+        TextInputChange first = new TextInputChange("a", "", 5, 5);
+        TextInputChange third = new TextInputChange("c", "", 7, 7);
+
+        // the event with count 2 was sent already, the inputs can't be merged without it
+        AztecReactTextChangedEvent coalesced = event("<p>helloa</p>", 1, first).coalesce(event("<p>helloabc</p>", 3,
+                third));
+
+        assertEquals(Arrays.asList(first, third), coalesced.getTextInputs());
+    }
+
+    @Test
+    public void testInputsThatDontTouchAreBothKept() {
+        TextInputChange first = new TextInputChange("a", "", 0, 0);
+        TextInputChange second = new TextInputChange("b", "", 6, 6);
+
+        AztecReactTextChangedEvent coalesced = event("<p>ahello</p>", 1, first).coalesce(event("<p>ahellob</p>", 2,
+                second));
+
+        assertEquals(Arrays.asList(first, second), coalesced.getTextInputs());
+    }
+
+    @Test
+    public void testInputOfTheOlderEventIsKeptWhenTheNewerHasNone() {
+        TextInputChange first = new TextInputChange("a", "", 5, 5);
+
+        AztecReactTextChangedEvent coalesced = event("<p>helloa</p>", 1, first).coalesce(event("<p>hello</p>", 2,
+                null));
+
+        assertEquals(Collections.singletonList(first), coalesced.getTextInputs());
+    }
+
+    @Test
+    public void testKeptInputsStayInOrderOverSeveralCoalesces() {
+        TextInputChange first = new TextInputChange("a", "", 0, 0);
+        TextInputChange second = new TextInputChange("b", "", 6, 6);
+        TextInputChange third = new TextInputChange("c", "", 7, 7);
+
+        AztecReactTextChangedEvent coalesced = event("<p>ahello</p>", 1, first)
+                .coalesce(event("<p>ahellob</p>", 2, second))
+                .coalesce(event("<p>ahellobc</p>", 3, third));
+
+        assertEquals(Arrays.asList(first, new TextInputChange("bc", "", 6, 6)), coalesced.getTextInputs());
+    }
+}
@@ -0,0 +1,65 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Minimal JMH-like harness for the JVM benchmarks: runs an operation after a warm up, and reports the time and the
+ * bytes allocated per operation, as measured for the current thread. The results are printed on stdout, which the
+ * build shows when run with -Pbenchmarks.
+ */
+class BenchmarkRunner {
+
+    interface Operation {
+        void run(int iteration);
+    }
+
+    static class Result {
+        final String name;
+        final int size;
+        final long nanosPerOp;
+        final long bytesPerOp;
+
+        Result(String name, int size, long nanosPerOp, long bytesPerOp) {
+            this.name = name;
+            this.size = size;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-28s size=%7d %10d ns/op %10d B/op", name, size, nanosPerOp, bytesPerOp);
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int mWarmUpIterations;
+    private final int mIterations;
+
+    BenchmarkRunner(int warmUpIterations, int iterations) {
+        mWarmUpIterations = warmUpIterations;
+        mIterations = iterations;
+    }
+
+    Result measure(String name, int size, Operation operation) {
+        for (int i = 0; i < mWarmUpIterations; i++) {
+            operation.run(i);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < mIterations; i++) {
+            operation.run(mWarmUpIterations + i);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = THREAD_BEAN.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Result result = new Result(name, size, nanos / mIterations, allocated / mIterations);
+        System.out.println(result);
+        return result;
+    }
+}
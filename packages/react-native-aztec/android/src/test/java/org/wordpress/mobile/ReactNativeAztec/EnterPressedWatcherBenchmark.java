@@ -0,0 +1,59 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the memory allocated per keystroke to tell whether Enter was pressed, while typing in the middle of a 20k
+ * block. Copying the block allocated at least 40KB per keystroke.
+ *
+ * Not part of the regular test run, use: ./gradlew testDebugUnitTest -Pbenchmarks
+ */
+public class EnterPressedWatcherBenchmark {
+
+    private static final int BLOCK_LENGTH = 20000;
+    private static final int KEYSTROKES = 10000;
+
+    private static String block() {
+        StringBuilder text = new StringBuilder(BLOCK_LENGTH);
+        while (text.length() < BLOCK_LENGTH) {
+            text.append("lorem ipsum dolor sit amet ");
+        }
+        text.setLength(BLOCK_LENGTH);
+        return text.toString();
+    }
+
+    @Test
+    public void benchmarkAllocationsPerKeystroke() {
+        StringBuilder text = new StringBuilder(BLOCK_LENGTH + KEYSTROKES).append(block());
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // warm up, so the JIT doesn't count in the measure
+        for (int i = 0; i < KEYSTROKES; i++) {
+            EnterPressedWatcher.findInsertedNewline(text, text.length() - 1, BLOCK_LENGTH / 2, BLOCK_LENGTH / 2, 0,
+                    null);
+        }
+
+        int found = 0;
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < KEYSTROKES; i++) {
+            int position = BLOCK_LENGTH / 2 + i;
+            int lengthBefore = text.length();
+            text.insert(position, 'a');
+            if (EnterPressedWatcher.findInsertedNewline(text, lengthBefore, position, position, 0, null) >= 0) {
+                found++;
+            }
+        }
+        long bytesPerKeystroke = (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / KEYSTROKES;
+
+        System.out.println(String.format("block=%d allocated=%d bytes/key (copying the block: >= %d bytes/key)",
+                BLOCK_LENGTH, bytesPerKeystroke, 2 * BLOCK_LENGTH));
+
+        assertEquals(0, found);
+    }
+}
@@ -0,0 +1,94 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class EnterPressedWatcherTest {
+
+    @Test
+    public void testFindsTheInsertedNewline() {
+        StringBuilder text = new StringBuilder("hello world");
+        int lengthBefore = text.length();
+        text.insert(5, '\n');
+
+        assertEquals(5, EnterPressedWatcher.findInsertedNewline(text, lengthBefore, 5, 5, 0, null));
+    }
+
+    @Test
+    public void testIgnoresOtherCharacters() {
+        StringBuilder text = new StringBuilder("hello world");
+        int lengthBefore = text.length();
+        text.insert(5, 'x');
+
+        assertEquals(-1, EnterPressedWatcher.findInsertedNewline(text, lengthBefore, 5, 5, 0, null));
+    }
+
+    @Test
+    public void testIgnoresChangesOfAnotherLength() {
+        StringBuilder text = new StringBuilder("hello world");
+        int lengthBefore = text.length();
+        text.insert(5, "\n\n");
+
+        assertEquals(-1, EnterPressedWatcher.findInsertedNewline(text, lengthBefore, 5, 5, 0, null));
+        assertEquals(-1, EnterPressedWatcher.findInsertedNewline(text, -1, 5, 5, 0, null));
+    }
+
+    @Test
+    public void testSkipsGboardReplacement() {
+        // Gboard replaces "hello" with "hello\n" when Enter is pressed right after the word
+        StringBuilder text = new StringBuilder("hello world");
+        int lengthBefore = text.length();
+        text.replace(0, 5, "hello\n");
+
+        assertEquals(5, EnterPressedWatcher.findInsertedNewline(text, lengthBefore, 0, 0, 5, "hello"));
+    }
+
+    /**
+     * Telling whether Enter was pressed must not copy the text, which would cost as much as the whole block on every
+     * keystroke: only the characters of the change are read.
+     */
+    @Test
+    public void testOnlyReadsTheChangedCharacters() {
+        StringBuilder text = new StringBuilder("hello world");
+        int lengthBefore = text.length();
+        text.replace(0, 5, "hello\n");
+        CountingText countingText = new CountingText(text);
+
+        assertEquals(5, EnterPressedWatcher.findInsertedNewline(countingText, lengthBefore, 0, 0, 5, "hello"));
+        assertEquals(6, countingText.mReadCount);
+    }
+
+    /**
+     * Counts the characters read, and fails on anything that would copy the text.
+     */
+    private static class CountingText implements CharSequence {
+        private final CharSequence mText;
+        int mReadCount = 0;
+
+        CountingText(CharSequence text) {
+            mText = text;
+        }
+
+        @Override
+        public int length() {
+            return mText.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            mReadCount++;
+            return mText.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            throw new AssertionError("subSequence(" + start + ", " + end + ") copies the text");
+        }
+
+        @Override
+        public String toString() {
+            throw new AssertionError("toString() copies the text");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import java.util.Arrays;
+
+/**
+ * A plain text and the splitter and serializer {@link HtmlSegmentCache} needs for it, for the JVM tests and
+ * benchmarks. The serializer stands in for Aztec's toHtml: it's linear in the length of the serialized text.
+ */
+class FakeHtmlText {
+
+    private static final int MIN_SEGMENT_LENGTH = 256;
+
+    final StringBuilder text = new StringBuilder();
+
+    final HtmlSegmentCache.Splitter splitter = new HtmlSegmentCache.Splitter() {
+        @Override
+        public int[] findCuts(int start, int end) {
+            int[] cuts = new int[Math.max(0, (end - start) / MIN_SEGMENT_LENGTH)];
+            int cutCount = 0;
+            int position = start + MIN_SEGMENT_LENGTH;
+            while (position <= end - MIN_SEGMENT_LENGTH) {
+                if (text.charAt(position - 1) == ' ' && text.charAt(position) != ' ') {
+                    cuts[cutCount++] = position;
+                    position += MIN_SEGMENT_LENGTH;
+                } else {
+                    position++;
+                }
+            }
+            return Arrays.copyOf(cuts, cutCount);
+        }
+    };
+
+    final HtmlSegmentCache.Serializer serializer = new HtmlSegmentCache.Serializer() {
+        @Override
+        public String serialize(int start, int end) {
+            return toHtml(text, start, end);
+        }
+    };
+
+    static int getMinSegmentLength() {
+        return MIN_SEGMENT_LENGTH;
+    }
+
+    static String toHtml(CharSequence text, int start, int end) {
+        StringBuilder html = new StringBuilder(end - start + 16);
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '&') {
+                html.append("&amp;");
+            } else if (c == '<') {
+                html.append("&lt;");
+            } else {
+                html.append(c);
+            }
+        }
+        return html.toString();
+    }
+
+    String toFullHtml() {
+        return toHtml(text, 0, text.length());
+    }
+
+    void fill(int length) {
+        text.setLength(0);
+        while (text.length() < length) {
+            text.append("lorem & ipsum <dolor> sit amet ");
+        }
+        text.setLength(length);
+    }
+
+    /**
+     * Replaces {@code removed} characters at {@code position} and reports the edit to the cache, like the
+     * TextWatcher does.
+     */
+    void type(HtmlSegmentCache cache, int position, String inserted, int removed) {
+        text.replace(position, position + removed, inserted);
+        cache.onTextChanged(position, removed, inserted.length());
+    }
+
+    String serialize(HtmlSegmentCache cache) {
+        return cache.serialize(text.length(), splitter, serializer);
+    }
+}
@@ -0,0 +1,47 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import org.junit.Test;
+
+/**
+ * Compares the cost of a keystroke with the segment cache and with a full serialization, for blocks up to 50k
+ * characters. The serialization is FakeHtmlText's, see AztecBridgeBenchmark for the real IncrementalHtmlSerializer,
+ * including its validation pass.
+ *
+ * Not part of the regular test run, use: ./gradlew testDebugUnitTest -Pbenchmarks
+ */
+public class HtmlSegmentCacheBenchmark {
+
+    private static final int[] SIZES = {1000, 5000, 10000, 25000, 50000};
+
+    private final BenchmarkRunner mRunner = new BenchmarkRunner(200, 1000);
+    private final FakeHtmlText mText = new FakeHtmlText();
+    private final HtmlSegmentCache mCache = new HtmlSegmentCache();
+
+    @Test
+    public void benchmarkKeystroke() {
+        for (final int size : SIZES) {
+            mText.fill(size);
+            mCache.invalidateAll();
+            mText.serialize(mCache);
+
+            // Even iterations type a character, odd ones delete it, so the size stays the same
+            mRunner.measure("keystroke (incremental)", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    if (iteration % 2 == 0) {
+                        mText.type(mCache, size / 2, "a", 0);
+                    } else {
+                        mText.type(mCache, size / 2, "", 1);
+                    }
+                    mText.serialize(mCache);
+                }
+            });
+            mRunner.measure("keystroke (full)", size, new BenchmarkRunner.Operation() {
+                @Override
+                public void run(int iteration) {
+                    mText.toFullHtml();
+                }
+            });
+        }
+    }
+}
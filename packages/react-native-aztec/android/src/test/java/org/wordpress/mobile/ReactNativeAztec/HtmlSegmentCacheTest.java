@@ -0,0 +1,67 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HtmlSegmentCacheTest {
+
+    private final FakeHtmlText mText = new FakeHtmlText();
+    private final HtmlSegmentCache mCache = new HtmlSegmentCache();
+
+    @Test
+    public void testOutputMatchesFullSerializationAfterEdits() {
+        mText.fill(5000);
+        assertEquals(mText.toFullHtml(), mText.serialize(mCache));
+
+        mText.type(mCache, 2500, "x", 0);
+        assertEquals(mText.toFullHtml(), mText.serialize(mCache));
+
+        mText.type(mCache, 0, "<", 3);
+        assertEquals(mText.toFullHtml(), mText.serialize(mCache));
+
+        mText.type(mCache, mText.text.length(), " tail", 0);
+        assertEquals(mText.toFullHtml(), mText.serialize(mCache));
+
+        mText.type(mCache, 100, "", 4000);
+        assertEquals(mText.toFullHtml(), mText.serialize(mCache));
+
+        mCache.invalidate(10, 20);
+        assertEquals(mText.toFullHtml(), mText.serialize(mCache));
+    }
+
+    @Test
+    public void testEditAtACutMergesBothSegments() {
+        mText.fill(5000);
+        mText.serialize(mCache);
+        int cut = mCache.getSegmentStart(1);
+
+        mText.type(mCache, cut, "x", 0);
+        assertEquals(mText.toFullHtml(), mText.serialize(mCache));
+        // Both segments around the cut were serialized again
+        assertTrue(mCache.getLastSerializedLength() > cut);
+    }
+
+    /**
+     * Types in the middle of blocks of increasing size: the amount of text serialized again per keystroke must not
+     * grow with the block. The timings are in {@link HtmlSegmentCacheBenchmark}.
+     */
+    @Test
+    public void testSerializedLengthPerKeystrokeStaysFlat() {
+        int[] sizes = {1000, 5000, 10000, 25000, 50000};
+        for (int size : sizes) {
+            mText.fill(size);
+            mCache.invalidateAll();
+            mText.serialize(mCache);
+
+            for (int i = 0; i < 200; i++) {
+                mText.type(mCache, size / 2 + i, i % 8 == 0 ? " " : "a", 0);
+                mText.serialize(mCache);
+                assertTrue("Serialized " + mCache.getLastSerializedLength() + " chars for a keystroke in a block of "
+                           + size, mCache.getLastSerializedLength() < 4 * FakeHtmlText.getMinSegmentLength());
+            }
+            assertEquals(mText.toFullHtml(), mText.serialize(mCache));
+        }
+    }
+}
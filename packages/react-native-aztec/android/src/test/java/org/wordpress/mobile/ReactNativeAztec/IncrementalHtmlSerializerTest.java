@@ -0,0 +1,185 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.text.Editable;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class IncrementalHtmlSerializerTest {
+
+    private final SpannableStringBuilder mText = new SpannableStringBuilder();
+    private int mSerializedLength = 0;
+
+    private final IncrementalHtmlSerializer mSerializer = new IncrementalHtmlSerializer(
+            new IncrementalHtmlSerializer.Source() {
+                @Override
+                public Editable getText() {
+                    return mText;
+                }
+
+                @Override
+                public String toHtml(Spannable text) {
+                    mSerializedLength += text.length();
+                    return toFakeHtml(text);
+                }
+            });
+
+    // An element of the HTML
+    private static class Tag {
+        final String mName;
+
+        Tag(String name) {
+            mName = name;
+        }
+    }
+
+    /**
+     * Stands in for Aztec's toHtml: the text with its tags, so a tag cut or serialized twice shows up in the output.
+     */
+    private static String toFakeHtml(final Spanned text) {
+        Tag[] tags = text.getSpans(0, text.length(), Tag.class);
+        Arrays.sort(tags, new Comparator<Tag>() {
+            @Override
+            public int compare(Tag first, Tag second) {
+                if (text.getSpanStart(first) != text.getSpanStart(second)) {
+                    return text.getSpanStart(first) - text.getSpanStart(second);
+                }
+                if (text.getSpanEnd(first) != text.getSpanEnd(second)) {
+                    return text.getSpanEnd(second) - text.getSpanEnd(first);
+                }
+                return first.mName.compareTo(second.mName);
+            }
+        });
+
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            for (int j = tags.length - 1; j >= 0; j--) {
+                if (text.getSpanEnd(tags[j]) == i && text.getSpanStart(tags[j]) < i) {
+                    html.append("</").append(tags[j].mName).append('>');
+                }
+            }
+            for (Tag tag : tags) {
+                if (text.getSpanStart(tag) == i) {
+                    html.append('<').append(tag.mName).append(text.getSpanEnd(tag) == i ? "/>" : ">");
+                }
+            }
+            if (i < text.length()) {
+                html.append(text.charAt(i));
+            }
+        }
+        return html.toString();
+    }
+
+    @Before
+    public void setUp() {
+        while (mText.length() < 5000) {
+            mText.append("lorem ipsum dolor sit amet ");
+        }
+    }
+
+    private void assertMatchesFullSerialization() {
+        assertEquals(toFakeHtml(mText), mSerializer.toHtml());
+    }
+
+    private void assertNoCutTouchesASpan(int[] cuts) {
+        for (int cut : cuts) {
+            for (Tag tag : mText.getSpans(0, mText.length(), Tag.class)) {
+                assertFalse("Cut at " + cut + " touches " + tag.mName,
+                        mText.getSpanStart(tag) <= cut && cut <= mText.getSpanEnd(tag));
+            }
+        }
+    }
+
+    @Test
+    public void testCutsNeverTouchASpan() {
+        int[] plainCuts = IncrementalHtmlSerializer.findCuts(mText, 0, mText.length());
+        assertTrue(plainCuts.length >= 5);
+
+        mText.setSpan(new Tag("ends-at-cut"), plainCuts[0] - 10, plainCuts[0], Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        mText.setSpan(new Tag("empty-at-cut"), plainCuts[1], plainCuts[1], Spanned.SPAN_MARK_MARK);
+        mText.setSpan(new Tag("starts-at-cut"), plainCuts[2], plainCuts[2] + 1, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        mText.setSpan(new Tag("crosses-cut"), plainCuts[3] - 1, plainCuts[3] + 1, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        mText.setSpan(new Tag("one-char-before-cut"), plainCuts[4] - 1, plainCuts[4],
+                Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+        int[] cuts = IncrementalHtmlSerializer.findCuts(mText, 0, mText.length());
+        assertTrue(cuts.length > 0);
+        assertNoCutTouchesASpan(cuts);
+    }
+
+    @Test
+    public void testOutputMatchesFullSerializationAfterEdits() {
+        mText.setSpan(new Tag("b"), 1000, 1200, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        mText.setSpan(new Tag("img"), 3000, 3000, Spanned.SPAN_MARK_MARK);
+        assertMatchesFullSerialization();
+
+        mText.insert(1100, "x");
+        assertMatchesFullSerialization();
+
+        mText.insert(3000, "y ");
+        assertMatchesFullSerialization();
+
+        mText.delete(10, 2000);
+        assertMatchesFullSerialization();
+
+        mText.append(" tail");
+        assertMatchesFullSerialization();
+    }
+
+    @Test
+    public void testOnlyTheEditedSegmentIsSerializedAgain() {
+        mSerializer.toHtml();
+        // Past the first serialization, which is validated against a full one
+        mSerializer.toHtml();
+
+        mSerializedLength = 0;
+        mText.insert(2500, "x");
+        assertMatchesFullSerialization();
+        assertTrue(mSerializedLength < 1000);
+    }
+
+    @Test
+    public void testSpanChangesInvalidateTheCachedSegments() {
+        assertMatchesFullSerialization();
+
+        Tag bold = new Tag("b");
+        mText.setSpan(bold, 2000, 2100, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        assertMatchesFullSerialization();
+
+        // Moved over the cut that was placed before it existed
+        mText.setSpan(bold, 1500, 2600, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        assertMatchesFullSerialization();
+        assertNoCutTouchesASpan(IncrementalHtmlSerializer.findCuts(mText, 0, mText.length()));
+
+        mText.setSpan(new Tag("img"), 4000, 4000, Spanned.SPAN_MARK_MARK);
+        assertMatchesFullSerialization();
+
+        mText.removeSpan(bold);
+        assertMatchesFullSerialization();
+    }
+
+    @Test
+    public void testSpanTouchingACutFallsBackToFullSerialization() {
+        mSerializer.toHtml();
+        int[] cuts = IncrementalHtmlSerializer.findCuts(mText, 0, mText.length());
+
+        // Without the watcher, the cache doesn't know about the new span
+        mText.removeSpan(mSerializer);
+        mText.setSpan(new Tag("img"), cuts[0], cuts[0], Spanned.SPAN_MARK_MARK);
+
+        assertMatchesFullSerialization();
+    }
+}
@@ -0,0 +1,95 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TextChangeBurstTest {
+
+    private final StringBuilder mText = new StringBuilder();
+    private final TextChangeBurst mBurst = new TextChangeBurst();
+
+    private void edit(int start, int removed, String inserted) {
+        mBurst.beforeTextChanged(mText, start, removed, inserted.length());
+        mText.replace(start, start + removed, inserted);
+        mBurst.onTextChanged(inserted.length() - removed == 1 ? inserted.charAt(inserted.length() - 1) : null);
+    }
+
+    // Applies the burst to the text it started from, which must give the current text
+    private String replay(String originalText) {
+        return originalText.substring(0, mBurst.getStart())
+               + mText.substring(mBurst.getStart(), mBurst.getEnd())
+               + originalText.substring(mBurst.getStart() + mBurst.getPreviousText().length());
+    }
+
+    @Test
+    public void testConsecutiveEditsAreMerged() {
+        mText.append("The quick brwn fox");
+        String original = mText.toString();
+
+        // autocorrection: the composing word gets replaced, then a space is added
+        edit(10, 4, "brown");
+        edit(15, 0, " ");
+
+        assertEquals(10, mBurst.getStart());
+        assertEquals(16, mBurst.getEnd());
+        assertEquals("brwn", mBurst.getPreviousText());
+        assertEquals(Character.valueOf(' '), mBurst.getLastAddedChar());
+        assertEquals(mText.toString(), replay(original));
+    }
+
+    @Test
+    public void testDisjointEditsIncludeTheTextBetweenThem() {
+        mText.append("one two three four");
+        String original = mText.toString();
+
+        edit(14, 4, "4");
+        edit(0, 3, "1");
+
+        assertEquals(0, mBurst.getStart());
+        assertEquals("one two three four", mBurst.getPreviousText());
+        assertEquals(mText.toString(), replay(original));
+    }
+
+    @Test
+    public void testResetBetweenBeforeAndOnTextChangedStartsANewBurst() {
+        mText.append("hello world");
+        edit(5, 0, "!");
+
+        String original = mText.toString();
+        mBurst.beforeTextChanged(mText, 0, 5, 3);
+        mText.replace(0, 5, "bye");
+        mBurst.reset();
+        mBurst.onTextChanged(null);
+
+        assertEquals(0, mBurst.getStart());
+        assertEquals(3, mBurst.getEnd());
+        assertEquals("hello", mBurst.getPreviousText());
+        assertEquals(mText.toString(), replay(original));
+    }
+
+    @Test
+    public void testRandomEditsReplayToTheCurrentText() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            mText.setLength(0);
+            mText.append("lorem ipsum dolor sit amet, consectetur adipiscing elit");
+            mBurst.reset();
+            String original = mText.toString();
+
+            int edits = 1 + random.nextInt(10);
+            for (int i = 0; i < edits; i++) {
+                int start = random.nextInt(mText.length() + 1);
+                int removed = random.nextInt(Math.min(5, mText.length() - start) + 1);
+                String inserted = "xyz".substring(0, random.nextInt(4));
+                edit(start, removed, inserted);
+            }
+
+            assertTrue(mBurst.getStart() <= mBurst.getEnd());
+            assertEquals(mText.toString(), replay(original));
+        }
+    }
+}
@@ -179,6 +179,11 @@ class AztecView extends Component {
 	}
 
 	_onChange( event ) {
+		if ( Platform.OS === 'android' && ! this.applyTextDelta( event ) ) {
+			return;
+		}
+		this.lastNativeText = event.nativeEvent.text;
+
 		// iOS uses the onKeyDown prop directly from native only when one of the triggerKeyCodes is entered, but
 		// Android includes the information needed for onKeyDown in the event passed to onChange.
 		if ( Platform.OS === 'android' ) {
@@ -196,9 +201,65 @@ class AztecView extends Component {
 		if ( onChange ) {
 			onChange( event );
 		}
+
+		// A selection change received while waiting for the text snapshot is forwarded once the text is known.
+		const { pendingSelectionEvent } = this;
+		if ( pendingSelectionEvent ) {
+			this.pendingSelectionEvent = undefined;
+			this._onSelectionChange( pendingSelectionEvent );
+		}
+	}
+
+	// With `sendTextDeltas`, Android only sends how the HTML changed since the previous `onChange` event.
+	// This rebuilds the full text in `event.nativeEvent.text`, and returns false when the delta can't be
+	// applied, in which case the whole text is requested and will arrive in a later event.
+	applyTextDelta( event ) {
+		const { delta, eventCount, text } = event.nativeEvent;
+
+		if ( ! delta ) {
+			this.lastChangeText = text;
+			this.lastChangeEventCount = eventCount;
+			this.isWaitingForTextSnapshot = false;
+			return true;
+		}
+
+		if (
+			this.lastChangeText === undefined ||
+			this.lastChangeEventCount !== delta.baseEventCount
+		) {
+			if ( ! this.isWaitingForTextSnapshot ) {
+				this.isWaitingForTextSnapshot = true;
+				UIManager.dispatchViewManagerCommand(
+					findNodeHandle( this.aztecViewRef.current ),
+					'requestTextSnapshot',
+					[]
+				);
+			}
+			return false;
+		}
+
+		event.nativeEvent.text =
+			this.lastChangeText.slice( 0, delta.offset ) +
+			delta.inserted +
+			this.lastChangeText.slice( delta.offset + delta.removedLength );
+		this.lastChangeText = event.nativeEvent.text;
+		this.lastChangeEventCount = eventCount;
+		return true;
 	}
 
 	_onSelectionChange( event ) {
+		// With `sendSelectionTextOnlyIfChanged`, Android leaves the text out when it's the one of the previous event.
+		if ( event.nativeEvent.text === undefined ) {
+			// While a snapshot is pending, the last text JS has is older than the one this selection refers to.
+			if ( this.isWaitingForTextSnapshot ) {
+				this.pendingSelectionEvent = event;
+				return;
+			}
+			event.nativeEvent.text = this.lastNativeText;
+		} else {
+			this.lastNativeText = event.nativeEvent.text;
+		}
+
 		if ( this.props.onSelectionChange ) {
 			const { selectionStart, selectionEnd, text } = event.nativeEvent;
 			const { onSelectionChange } = this.props;
@@ -0,0 +1,241 @@
+/**
+ * External dependencies
+ */
+import { UIManager } from 'react-native';
+
+/**
+ * Internal dependencies
+ */
+import AztecView from '../AztecView';
+
+const VIEW_TAG = 7;
+
+const createAztecView = ( props = {} ) => {
+	const aztecView = new AztecView( {
+		onChange: jest.fn(),
+		onSelectionChange: jest.fn(),
+		...props,
+	} );
+	aztecView.aztecViewRef.current = VIEW_TAG;
+	return aztecView;
+};
+
+const changeEvent = ( nativeEvent ) => ( { nativeEvent } );
+
+const selectionEvent = ( position, eventCount ) =>
+	changeEvent( {
+		selectionStart: position,
+		selectionEnd: position,
+		eventCount,
+	} );
+
+describe( 'AztecView', () => {
+	beforeEach( () => {
+		UIManager.dispatchViewManagerCommand = jest.fn();
+	} );
+
+	describe( 'applyTextDelta', () => {
+		it( 'rebuilds the text from a delta on top of the previous change', () => {
+			const aztecView = createAztecView();
+
+			aztecView._onChange(
+				changeEvent( { text: '<p>Hello</p>', eventCount: 1 } )
+			);
+			const event = changeEvent( {
+				delta: {
+					offset: 8,
+					removedLength: 0,
+					inserted: ' world',
+					baseEventCount: 1,
+				},
+				eventCount: 2,
+			} );
+			aztecView._onChange( event );
+
+			expect( aztecView.props.onChange ).toHaveBeenCalledTimes( 2 );
+			expect( event.nativeEvent.text ).toBe( '<p>Hello world</p>' );
+			expect(
+				UIManager.dispatchViewManagerCommand
+			).not.toHaveBeenCalled();
+		} );
+
+		it( 'replaces the removed characters of a delta', () => {
+			const aztecView = createAztecView();
+
+			aztecView._onChange(
+				changeEvent( { text: '<p>Hello world</p>', eventCount: 1 } )
+			);
+			const event = changeEvent( {
+				delta: {
+					offset: 9,
+					removedLength: 5,
+					inserted: 'there',
+					baseEventCount: 1,
+				},
+				eventCount: 2,
+			} );
+			aztecView._onChange( event );
+
+			expect( event.nativeEvent.text ).toBe( '<p>Hello there</p>' );
+		} );
+
+		it( 'requests a single snapshot when a delta does not apply to the last change', () => {
+			const aztecView = createAztecView();
+
+			aztecView._onChange(
+				changeEvent( { text: '<p>Hello</p>', eventCount: 1 } )
+			);
+			const delta = {
+				offset: 8,
+				removedLength: 0,
+				inserted: '!',
+				baseEventCount: 2,
+			};
+			aztecView._onChange( changeEvent( { delta, eventCount: 3 } ) );
+			aztecView._onChange(
+				changeEvent( {
+					delta: { ...delta, baseEventCount: 3 },
+					eventCount: 4,
+				} )
+			);
+
+			expect( aztecView.props.onChange ).toHaveBeenCalledTimes( 1 );
+			expect(
+				UIManager.dispatchViewManagerCommand
+			).toHaveBeenCalledTimes( 1 );
+			expect( UIManager.dispatchViewManagerCommand ).toHaveBeenCalledWith(
+				VIEW_TAG,
+				'requestTextSnapshot',
+				[]
+			);
+		} );
+
+		it( 'requests a snapshot when a delta arrives before any text', () => {
+			const aztecView = createAztecView();
+
+			aztecView._onChange(
+				changeEvent( {
+					delta: {
+						offset: 0,
+						removedLength: 0,
+						inserted: 'a',
+						baseEventCount: 0,
+					},
+					eventCount: 1,
+				} )
+			);
+
+			expect( aztecView.props.onChange ).not.toHaveBeenCalled();
+			expect( UIManager.dispatchViewManagerCommand ).toHaveBeenCalledWith(
+				VIEW_TAG,
+				'requestTextSnapshot',
+				[]
+			);
+		} );
+
+		it( 'applies deltas again once the snapshot arrives', () => {
+			const aztecView = createAztecView();
+
+			aztecView._onChange(
+				changeEvent( {
+					delta: {
+						offset: 0,
+						removedLength: 0,
+						inserted: 'a',
+						baseEventCount: 0,
+					},
+					eventCount: 1,
+				} )
+			);
+			aztecView._onChange(
+				changeEvent( { text: '<p>ab</p>', eventCount: 2 } )
+			);
+			const event = changeEvent( {
+				delta: {
+					offset: 5,
+					removedLength: 0,
+					inserted: 'c',
+					baseEventCount: 2,
+				},
+				eventCount: 3,
+			} );
+			aztecView._onChange( event );
+
+			expect( aztecView.props.onChange ).toHaveBeenCalledTimes( 2 );
+			expect( event.nativeEvent.text ).toBe( '<p>abc</p>' );
+			expect( aztecView.isWaitingForTextSnapshot ).toBe( false );
+		} );
+	} );
+
+	describe( 'selection text fallback', () => {
+		it( 'fills a selection change without text with the last native text', () => {
+			const aztecView = createAztecView();
+
+			aztecView._onChange(
+				changeEvent( { text: '<p>Hello</p>', eventCount: 1 } )
+			);
+			aztecView._onSelectionChange( selectionEvent( 2, 1 ) );
+
+			expect( aztecView.props.onSelectionChange ).toHaveBeenCalledWith(
+				2,
+				2,
+				'<p>Hello</p>',
+				expect.anything()
+			);
+		} );
+
+		it( 'remembers the text of a selection change', () => {
+			const aztecView = createAztecView();
+
+			aztecView._onSelectionChange(
+				changeEvent( {
+					text: '<p>Hi</p>',
+					selectionStart: 1,
+					selectionEnd: 1,
+					eventCount: 1,
+				} )
+			);
+			aztecView._onSelectionChange( selectionEvent( 2, 1 ) );
+
+			expect(
+				aztecView.props.onSelectionChange
+			).toHaveBeenLastCalledWith( 2, 2, '<p>Hi</p>', expect.anything() );
+		} );
+
+		it( 'holds a selection change without text until the requested snapshot arrives', () => {
+			const aztecView = createAztecView();
+
+			aztecView._onChange(
+				changeEvent( { text: '<p>Hello</p>', eventCount: 1 } )
+			);
+			aztecView._onChange(
+				changeEvent( {
+					delta: {
+						offset: 8,
+						removedLength: 0,
+						inserted: '!',
+						baseEventCount: 2,
+					},
+					eventCount: 3,
+				} )
+			);
+			aztecView._onSelectionChange( selectionEvent( 7, 3 ) );
+
+			expect( aztecView.props.onSelectionChange ).not.toHaveBeenCalled();
+
+			aztecView._onChange(
+				changeEvent( { text: '<p>Hello!!</p>', eventCount: 4 } )
+			);
+
+			expect(
+				aztecView.props.onSelectionChange
+			).toHaveBeenCalledTimes( 1 );
+			expect( aztecView.props.onSelectionChange ).toHaveBeenCalledWith(
+				7,
+				7,
+				'<p>Hello!!</p>',
+				expect.anything()
+			);
+		} );
+	} );
+} );
@@ -18,6 +18,13 @@ public interface GutenbergBridgeJS2Parent extends RequestExecutor {
 
     void editorDidMount(ReadableArray unsupportedBlockNames);
 
+    /**
+     * Called by the editor when the content of the post changes. Only needed to know when the last content
+     * returned is stale, so hosts can ignore it.
+     */
+    default void editorDidChangeContent() {
+    }
+
     interface OtherMediaOptionsReceivedCallback {
         void onOtherMediaOptionsReceived(ArrayList<MediaOption> mediaList);
     }
@@ -48,6 +55,10 @@ public interface GutenbergBridgeJS2Parent extends RequestExecutor {
         void sendToJSFeaturedImageId(int mediaId);
     }
 
+    /**
+     * Called by WPAndroidGlueCode on its editor events thread, after the media events sent before it, not on the main
+     * thread: implementations must only emit to JS or post what they do back to the main thread.
+     */
     interface ReplaceUnsupportedBlockCallback {
         void replaceUnsupportedBlock(String content, String blockId);
     }
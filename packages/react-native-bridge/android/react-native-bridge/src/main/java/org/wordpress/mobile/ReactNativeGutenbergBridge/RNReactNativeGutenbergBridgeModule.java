@@ -70,6 +70,7 @@ public class RNReactNativeGutenbergBridgeModule extends ReactContextBaseJavaModu
 
     private static final String MAP_KEY_UPDATE_HTML = "html";
     private static final String MAP_KEY_UPDATE_TITLE = "title";
+    public static final String MAP_KEY_REQUEST_GET_HTML_REQUEST_ID = "requestId";
     public static final String MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_NEW_ID = "newId";
     private static final String MAP_KEY_SHOW_NOTICE_MESSAGE = "message";
 
@@ -127,6 +128,16 @@ public class RNReactNativeGutenbergBridgeModule extends ReactContextBaseJavaModu
         emitToJS(EVENT_NAME_REQUEST_GET_HTML, null);
     }
 
+    /**
+     * Requests the HTML like {@link #getHtmlFromJS()}, with an id that the response echoes in its contentInfo, under
+     * the {@link #MAP_KEY_REQUEST_GET_HTML_REQUEST_ID} key, so it can be told apart from other responses.
+     */
+    public void getHtmlFromJS(int requestId) {
+        WritableMap writableMap = new WritableNativeMap();
+        writableMap.putInt(MAP_KEY_REQUEST_GET_HTML_REQUEST_ID, requestId);
+        emitToJS(EVENT_NAME_REQUEST_GET_HTML, writableMap);
+    }
+
     public void setHtmlInJS(String html) {
         WritableMap writableMap = new WritableNativeMap();
         writableMap.putString(MAP_KEY_UPDATE_HTML, html);
@@ -231,6 +242,11 @@ public class RNReactNativeGutenbergBridgeModule extends ReactContextBaseJavaModu
         mGutenbergBridgeJS2Parent.editorDidMount(unsupportedBlockNames);
     }
 
+    @ReactMethod
+    public void editorDidChangeContent() {
+        mGutenbergBridgeJS2Parent.editorDidChangeContent();
+    }
+
     @ReactMethod
     public void requestMediaPickFrom(String mediaSource, ReadableArray filter, Boolean allowMultipleSelection, final Callback onMediaSelected) {
         MediaType mediaType = getMediaTypeFromFilter(filter);
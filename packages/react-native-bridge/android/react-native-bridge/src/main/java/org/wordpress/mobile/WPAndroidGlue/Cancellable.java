@@ -0,0 +1,8 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+public interface Cancellable {
+    /**
+     * Cancels the request, its listener won't be called afterwards. Does nothing if it has already completed.
+     */
+    void cancel();
+}
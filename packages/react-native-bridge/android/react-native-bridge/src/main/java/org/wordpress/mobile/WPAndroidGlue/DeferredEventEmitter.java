@@ -1,19 +1,29 @@
 package org.wordpress.mobile.WPAndroidGlue;
 
-import android.util.Pair;
-
 import androidx.annotation.Nullable;
 
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableNativeArray;
 import com.facebook.react.bridge.WritableNativeMap;
 
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.MediaUploadEventEmitter;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.MediaSaveEventEmitter;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.FeaturedImageEmitter;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import static org.wordpress.mobile.ReactNativeGutenbergBridge.RNReactNativeGutenbergBridgeModule.MAP_KEY_IS_CONNECTED;
 import static org.wordpress.mobile.ReactNativeGutenbergBridge.RNReactNativeGutenbergBridgeModule.MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_ID;
@@ -58,33 +68,225 @@ public class DeferredEventEmitter implements MediaUploadEventEmitter, MediaSaveE
     private static final String MAP_KEY_REPLACE_BLOCK_HTML = "html";
     private static final String MAP_KEY_REPLACE_BLOCK_BLOCK_ID = "clientId";
 
+    // Appended to the name of the media events batched together
+    private static final String EVENT_NAME_SUFFIX_BATCH = "Batch";
+    private static final String MAP_KEY_BATCH_EVENTS = "events";
+
+    private static final long PROGRESS_FLUSH_INTERVAL_MS = 100;
+
+    // Beyond it, the oldest pending progress is dropped first, then the oldest action that only reports a state JS
+    // gets again later. Actions JS can't do without, like the final state of a media, are never dropped, so they may
+    // exceed it: this is a bound on what can be dropped, not on the queue. Those are still collapsed per key, e.g. a
+    // media only keeps its last final state and its last id change, so the queue grows with the number of media
+    // rather than with the number of events.
+    private static final int MAX_PENDING_ACTIONS = 100;
+
+    private static final ScheduledExecutorService sDispatchExecutor =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "GutenbergEditorEvents");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    interface WritableMapFactory {
+        WritableMap createMap();
+        WritableArray createArray();
+    }
+
+    private static final WritableMapFactory NATIVE_MAP_FACTORY = new WritableMapFactory() {
+        @Override
+        public WritableMap createMap() {
+            return new WritableNativeMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return new WritableNativeArray();
+        }
+    };
+
+    // The events come from the host on any thread. They are all handled, in order, by this single thread, which is the
+    // only one touching the state below: an event can't slip in between the editor mounting and the pending events
+    // being flushed, and the events of a media reach JS in the order they came in.
+    private final ScheduledExecutorService mDispatchExecutor;
+    private final WritableMapFactory mMapFactory;
+
     /**
-     * Used for storing deferred actions prior to editor mounting
+     * Used for storing deferred actions prior to editor mounting. Only the latest action of each key is kept, e.g. the
+     * last state an upload reached, in the order they were last queued.
      */
-    private Queue<Pair<String, WritableMap>> mPendingActions = new ConcurrentLinkedQueue<>();
+    private final Map<String, JSEvent> mPendingActions = new LinkedHashMap<>();
+    // Written by the dispatch thread only
+    private volatile int mQueuedActionsCount;
+    private volatile int mCollapsedActionsCount;
+    private volatile int mDroppedActionsCount;
+    private volatile int mFlushedActionsCount;
+
+    private @Nullable JSEventEmitter mJSEventEmitter;
+
+    // Latest progress of each media waiting for the next flush, by event name and media id. Before the editor mounts,
+    // it's the last known progress of the media, replayed once it mounts.
+    private final Map<String, MediaProgress> mPendingProgress = new LinkedHashMap<>();
+    // Media events waiting for the next flush to be emitted in batches, in order
+    private final List<JSEvent> mBatchedEvents = new ArrayList<>();
+    private @Nullable ScheduledFuture<?> mScheduledFlush;
+    private volatile boolean mIsMediaEventsBatchingEnabled;
+    private volatile @Nullable Runnable mOnContentChangeSentListener;
+
+    private final Runnable mFlushMediaEventsRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushMediaEvents();
+        }
+    };
 
-    private JSEventEmitter mJSEventEmitter;
+    public DeferredEventEmitter() {
+        this(sDispatchExecutor, NATIVE_MAP_FACTORY);
+    }
 
-    void setEmitter(JSEventEmitter emitter) {
-        mJSEventEmitter = emitter;
-        flushActionQueueToJS();
+    DeferredEventEmitter(ScheduledExecutorService dispatchExecutor, WritableMapFactory mapFactory) {
+        mDispatchExecutor = dispatchExecutor;
+        mMapFactory = mapFactory;
+    }
+
+    /** Opt-in: instead of one event per media state, the media events of each flush are emitted together, as a single
+     *  mediaUploadBatch or mediaSaveBatch event whose events array holds the payloads of the mediaUpload or mediaSave
+     *  events, in order.
+     */
+    void setMediaEventsBatchingEnabled(boolean mediaEventsBatchingEnabled) {
+        mIsMediaEventsBatchingEnabled = mediaEventsBatchingEnabled;
+    }
+
+    boolean isMediaEventsBatchingEnabled() {
+        return mIsMediaEventsBatchingEnabled;
+    }
+
+    /**
+     * Called on the calling thread, right after this emitter was handed an event that may change the content of the
+     * post, e.g. the final state of an upload. The progress of a media is only shown by the editor, so it isn't one.
+     */
+    void setOnContentChangeSentListener(@Nullable Runnable onContentChangeSentListener) {
+        mOnContentChangeSentListener = onContentChangeSentListener;
+    }
+
+    private void onContentChangeSent() {
+        Runnable listener = mOnContentChangeSentListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Stops emitting to the editor, for an emitter that is replaced by another one: the flush already scheduled is
+     * cancelled, and the events still pending, or coming in afterwards, are never emitted.
+     */
+    void cancel() {
+        mDispatchExecutor.execute(() -> {
+            mJSEventEmitter = null;
+            if (mScheduledFlush != null) {
+                mScheduledFlush.cancel(false);
+                mScheduledFlush = null;
+            }
+            mPendingActions.clear();
+            mPendingProgress.clear();
+            mBatchedEvents.clear();
+        });
+    }
+
+    void setEmitter(final JSEventEmitter emitter) {
+        mDispatchExecutor.execute(() -> {
+            mJSEventEmitter = emitter;
+            flushActionQueueToJS();
+            // The uploads still in progress show where they are at right away
+            flushMediaEvents();
+        });
+    }
+
+    /**
+     * Runs something sending to JS on its own, e.g. a request for the content, after the events handed to this
+     * emitter so far: the media events waiting for the next flush are emitted first. Before the editor mounts, it
+     * runs after the events handed so far are queued.
+     */
+    void emitAfterPendingEvents(final Runnable emit) {
+        mDispatchExecutor.execute(() -> {
+            if (mJSEventEmitter != null) {
+                flushMediaEvents();
+            }
+            emit.run();
+        });
+    }
+
+    /**
+     * Counts of the actions queued before the editor mounted, for the current editor.
+     */
+    public PendingActionsMetrics getPendingActionsMetrics() {
+        return new PendingActionsMetrics(mQueuedActionsCount, mCollapsedActionsCount, mDroppedActionsCount,
+                mFlushedActionsCount);
     }
 
     /** This will queue actions to JS when the editor has not yet mounted. When the editor mounts, the events will be
      *  flushed. If the editor has already mounted, this will directly call emitToJS. This is useful for critical
      *  messages that have required actions, such as upload completion events.
      *
+     * @param key identifies what the action is about, a queued action replaces the pending one with the same key
      * @param eventName the name of the JS event
      * @param data the JS event data (can be null)
+     * @param isDroppable whether the action can be dropped when the queue is full
      */
-    private void queueActionToJS(String eventName, @Nullable WritableMap data) {
+    private void queueActionToJS(final String key, final String eventName, @Nullable final WritableMap data,
+                                 final boolean isDroppable) {
+        mDispatchExecutor.execute(() -> queueAction(key, eventName, data, isDroppable));
+    }
+
+    private void queueAction(String key, String eventName, @Nullable WritableMap data, boolean isDroppable) {
         if (mJSEventEmitter == null) {
-            mPendingActions.add(new Pair<>(eventName, data));
+            mQueuedActionsCount++;
+            // Removed first, so the latest action takes its place in the queue
+            if (mPendingActions.remove(key) != null) {
+                mCollapsedActionsCount++;
+            }
+            mPendingActions.put(key, new JSEvent(eventName, data, isDroppable));
+            evictIfFull();
         } else {
             mJSEventEmitter.emitToJS(eventName, data);
         }
     }
 
+    /**
+     * Makes room in the queue, see {@link #MAX_PENDING_ACTIONS}. When only actions that can't be dropped are left,
+     * the queue goes beyond it.
+     */
+    private void evictIfFull() {
+        while (mPendingActions.size() + mPendingProgress.size() > MAX_PENDING_ACTIONS) {
+            if (!mPendingProgress.isEmpty()) {
+                Iterator<Map.Entry<String, MediaProgress>> oldestProgress = mPendingProgress.entrySet().iterator();
+                String key = oldestProgress.next().getKey();
+                oldestProgress.remove();
+                AppLog.w(T.EDITOR, "Too many events before the editor mounted, dropped the progress of " + key);
+                continue;
+            }
+
+            String droppedKey = null;
+            Iterator<Map.Entry<String, JSEvent>> actions = mPendingActions.entrySet().iterator();
+            while (actions.hasNext()) {
+                Map.Entry<String, JSEvent> action = actions.next();
+                if (action.getValue().mIsDroppable) {
+                    droppedKey = action.getKey();
+                    actions.remove();
+                    break;
+                }
+            }
+            if (droppedKey == null) {
+                return;
+            }
+            mDroppedActionsCount++;
+            AppLog.w(T.EDITOR, "Too many events before the editor mounted, dropped " + droppedKey);
+        }
+    }
+
     /** This will optimistically emit events to JS (i.e. when the editor has mounted). If the editor has not mounted,
      *  this will silently drop the message. This is useful to send non-critical messages in a safe way.
      *
@@ -98,22 +300,115 @@ public class DeferredEventEmitter implements MediaUploadEventEmitter, MediaSaveE
     }
 
     private void flushActionQueueToJS() {
-        while (0 < mPendingActions.size()) {
-            final Pair<String, WritableMap> action = mPendingActions.remove();
-            mJSEventEmitter.emitToJS(action.first, action.second);
+        for (JSEvent action : mPendingActions.values()) {
+            mJSEventEmitter.emitToJS(action.mName, action.mData);
+        }
+        mFlushedActionsCount += mPendingActions.size();
+        mPendingActions.clear();
+    }
+
+    /** Progress updates can come by the hundreds per second, e.g. while uploading a gallery, so only the latest one
+     *  of each media is kept and they are all emitted together every {@link #PROGRESS_FLUSH_INTERVAL_MS}. Before the
+     *  editor mounts, they are kept until it does, instead of being dropped.
+     */
+    private void coalesceProgress(final MediaProgress progress) {
+        mDispatchExecutor.execute(() -> {
+            mPendingProgress.put(progress.getKey(), progress);
+            if (mJSEventEmitter != null) {
+                scheduleFlush();
+            } else {
+                evictIfFull();
+            }
+        });
+    }
+
+    private void scheduleFlush() {
+        if (mScheduledFlush == null) {
+            mScheduledFlush = mDispatchExecutor.schedule(mFlushMediaEventsRunnable, PROGRESS_FLUSH_INTERVAL_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushMediaEvents() {
+        if (mScheduledFlush != null) {
+            mScheduledFlush.cancel(false);
+            mScheduledFlush = null;
+        }
+        for (MediaProgress progress : mPendingProgress.values()) {
+            emitMediaEvent(progress.mEventName, progress.toWritableMap(mMapFactory));
+        }
+        mPendingProgress.clear();
+        emitBatchedEvents();
+    }
+
+    /** Emits a state other than progress, which isn't coalesced, after the pending progress of the same media. Before
+     *  the editor mounts, that progress is dropped instead, as the state replaces it.
+     */
+    private void emitMediaState(final String eventName, final String mediaId, final int state,
+                                final WritableMap data) {
+        mDispatchExecutor.execute(() -> {
+            MediaProgress pendingProgress = mPendingProgress.remove(MediaProgress.getKey(eventName, mediaId));
+            if (pendingProgress != null && mJSEventEmitter != null) {
+                emitMediaEvent(pendingProgress.mEventName, pendingProgress.toWritableMap(mMapFactory));
+            }
+            if (isCriticalMessage(state) && mJSEventEmitter == null) {
+                // A media changing id doesn't replace the state it reached
+                String key = MediaProgress.getKey(eventName, mediaId)
+                             + (state == MEDIA_SAVE_MEDIAID_CHANGED ? ":" + MEDIA_SAVE_MEDIAID_CHANGED : "");
+                queueAction(key, eventName, data, false);
+            } else {
+                emitMediaEvent(eventName, data);
+            }
+            if (!mBatchedEvents.isEmpty()) {
+                scheduleFlush();
+            }
+        });
+    }
+
+    private void emitMediaEvent(String eventName, WritableMap data) {
+        if (mIsMediaEventsBatchingEnabled && mJSEventEmitter != null) {
+            mBatchedEvents.add(new JSEvent(eventName, data));
+        } else {
+            emitOrDrop(eventName, data);
+        }
+    }
+
+    private void emitBatchedEvents() {
+        if (mBatchedEvents.isEmpty()) {
+            return;
+        }
+        Map<String, WritableArray> batches = new LinkedHashMap<>();
+        for (JSEvent event : mBatchedEvents) {
+            WritableArray batch = batches.get(event.mName);
+            if (batch == null) {
+                batch = mMapFactory.createArray();
+                batches.put(event.mName, batch);
+            }
+            batch.pushMap(event.mData);
+        }
+        mBatchedEvents.clear();
+
+        for (Map.Entry<String, WritableArray> batch : batches.entrySet()) {
+            WritableMap writableMap = mMapFactory.createMap();
+            writableMap.putArray(MAP_KEY_BATCH_EVENTS, batch.getValue());
+            emitOrDrop(batch.getKey() + EVENT_NAME_SUFFIX_BATCH, writableMap);
         }
     }
 
     private void setMediaFileUploadDataInJS(int state, int mediaId, String mediaUrl, float progress) {
-        setMediaFileUploadDataInJS(state, mediaId, mediaUrl, progress, MEDIA_SERVER_ID_UNKNOWN, new WritableNativeMap());
+        setMediaFileUploadDataInJS(state, mediaId, mediaUrl, progress, MEDIA_SERVER_ID_UNKNOWN, mMapFactory.createMap());
     }
 
     private void setMediaFileUploadDataInJS(int state, int mediaId, String mediaUrl, float progress, int mediaServerId) {
-        setMediaFileUploadDataInJS(state, mediaId, mediaUrl, progress, mediaServerId, new WritableNativeMap());
+        setMediaFileUploadDataInJS(state, mediaId, mediaUrl, progress, mediaServerId, mMapFactory.createMap());
     }
 
-    private void setMediaFileUploadDataInJS(int state, int mediaId, String mediaUrl, float progress, int mediaServerId, WritableNativeMap metadata) {
-        WritableMap writableMap = new WritableNativeMap();
+    private void setMediaFileUploadDataInJS(int state, int mediaId, String mediaUrl, float progress, int mediaServerId, WritableMap metadata) {
+        if (state == MEDIA_UPLOAD_STATE_UPLOADING) {
+            coalesceProgress(MediaProgress.forUpload(mediaId, progress));
+            return;
+        }
+        WritableMap writableMap = mMapFactory.createMap();
         writableMap.putInt(MAP_KEY_MEDIA_FILE_STATE, state);
         writableMap.putInt(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_ID, mediaId);
         writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_URL, mediaUrl);
@@ -122,37 +417,29 @@ public class DeferredEventEmitter implements MediaUploadEventEmitter, MediaSaveE
         if (mediaServerId != MEDIA_SERVER_ID_UNKNOWN) {
             writableMap.putInt(MAP_KEY_MEDIA_FILE_MEDIA_SERVER_ID, mediaServerId);
         }
-        if (isCriticalMessage(state)) {
-            queueActionToJS(EVENT_NAME_MEDIA_UPLOAD, writableMap);
-        } else {
-            emitOrDrop(EVENT_NAME_MEDIA_UPLOAD, writableMap);
-        }
+        emitMediaState(EVENT_NAME_MEDIA_UPLOAD, String.valueOf(mediaId), state, writableMap);
     }
 
     private void setMediaSaveResultDataInJS(int state, String mediaId, String mediaUrl, float progress) {
-        WritableMap writableMap = new WritableNativeMap();
+        if (state == MEDIA_SAVE_STATE_SAVING) {
+            coalesceProgress(MediaProgress.forSave(mediaId, progress));
+            return;
+        }
+        WritableMap writableMap = mMapFactory.createMap();
         writableMap.putInt(MAP_KEY_MEDIA_FILE_STATE, state);
         writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_ID, mediaId);
         writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_URL, mediaUrl);
         writableMap.putDouble(MAP_KEY_MEDIA_FILE_MEDIA_ACTION_PROGRESS, progress);
-        if (isCriticalMessage(state)) {
-            queueActionToJS(EVENT_NAME_MEDIA_SAVE, writableMap);
-        } else {
-            emitOrDrop(EVENT_NAME_MEDIA_SAVE, writableMap);
-        }
+        emitMediaState(EVENT_NAME_MEDIA_SAVE, mediaId, state, writableMap);
     }
 
     private void setMediaSaveResultDataInJS(int state, String mediaId, boolean success, float progress) {
-        WritableMap writableMap = new WritableNativeMap();
+        WritableMap writableMap = mMapFactory.createMap();
         writableMap.putInt(MAP_KEY_MEDIA_FILE_STATE, state);
         writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_ID, mediaId);
         writableMap.putBoolean(MAP_KEY_MEDIA_FINAL_SAVE_RESULT_SUCCESS_VALUE, success);
         writableMap.putDouble(MAP_KEY_MEDIA_FILE_MEDIA_ACTION_PROGRESS, progress);
-        if (isCriticalMessage(state)) {
-            queueActionToJS(EVENT_NAME_MEDIA_SAVE, writableMap);
-        } else {
-            emitOrDrop(EVENT_NAME_MEDIA_SAVE, writableMap);
-        }
+        emitMediaState(EVENT_NAME_MEDIA_SAVE, mediaId, state, writableMap);
     }
 
     private boolean isCriticalMessage(int state) {
@@ -164,6 +451,7 @@ public class DeferredEventEmitter implements MediaUploadEventEmitter, MediaSaveE
     @Override
     public void onUploadMediaFileClear(int mediaId) {
         setMediaFileUploadDataInJS(MEDIA_UPLOAD_STATE_RESET, mediaId, null, 0);
+        onContentChangeSent();
     }
 
     @Override
@@ -174,22 +462,26 @@ public class DeferredEventEmitter implements MediaUploadEventEmitter, MediaSaveE
     @Override
     public void onMediaFileUploadSucceeded(int mediaId, String mediaUrl, int mediaServerId, WritableNativeMap metadata) {
         setMediaFileUploadDataInJS(MEDIA_UPLOAD_STATE_SUCCEEDED, mediaId, mediaUrl, 1, mediaServerId, metadata);
+        onContentChangeSent();
     }
 
     @Override
     public void onMediaFileUploadFailed(int mediaId) {
         setMediaFileUploadDataInJS(MEDIA_UPLOAD_STATE_FAILED, mediaId, null, 0);
+        onContentChangeSent();
     }
 
     @Override
     public void onMediaFileUploadPaused(int mediaId) {
         setMediaFileUploadDataInJS(MEDIA_UPLOAD_STATE_PAUSED, mediaId, null, 0);
+        onContentChangeSent();
     }
 
     // Media file save events emitter
     @Override
     public void onSaveMediaFileClear(String mediaId) {
         setMediaSaveResultDataInJS(MEDIA_SAVE_STATE_RESET, mediaId, null, 0);
+        onContentChangeSent();
     }
 
     @Override
@@ -200,52 +492,155 @@ public class DeferredEventEmitter implements MediaUploadEventEmitter, MediaSaveE
     @Override
     public void onMediaFileSaveSucceeded(String mediaId, String mediaUrl) {
         setMediaSaveResultDataInJS(MEDIA_SAVE_STATE_SUCCEEDED, mediaId, mediaUrl, 1);
+        onContentChangeSent();
     }
 
     @Override
     public void onMediaFileSaveFailed(String mediaId) {
         setMediaSaveResultDataInJS(MEDIA_SAVE_STATE_FAILED, mediaId, null, 0);
+        onContentChangeSent();
     }
 
     @Override
     public void onMediaCollectionSaveResult(String firstMediaIdInCollection, boolean success) {
         setMediaSaveResultDataInJS(MEDIA_SAVE_FINAL_STATE_RESULT, firstMediaIdInCollection, success, success ? 1 : 0);
+        onContentChangeSent();
     }
 
     @Override public void onMediaIdChanged(String oldId, String newId, String oldUrl) {
-        WritableMap writableMap = new WritableNativeMap();
+        WritableMap writableMap = mMapFactory.createMap();
         writableMap.putInt(MAP_KEY_MEDIA_FILE_STATE, MEDIA_SAVE_MEDIAID_CHANGED);
         writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_ID, oldId);
         writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_NEW_ID, newId);
         writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_URL, oldUrl);
-        if (isCriticalMessage(MEDIA_SAVE_MEDIAID_CHANGED)) {
-            queueActionToJS(EVENT_NAME_MEDIA_SAVE, writableMap);
-        } else {
-            emitOrDrop(EVENT_NAME_MEDIA_SAVE, writableMap);
-        }
+        emitMediaState(EVENT_NAME_MEDIA_SAVE, oldId, MEDIA_SAVE_MEDIAID_CHANGED, writableMap);
+        onContentChangeSent();
     }
 
     public void sendToJSFeaturedImageId(int mediaId) {
-        WritableMap writableMap = new WritableNativeMap();
+        WritableMap writableMap = mMapFactory.createMap();
         writableMap.putInt(MAP_KEY_FEATURED_IMAGE_ID, mediaId);
-        queueActionToJS(EVENT_FEATURED_IMAGE_ID_NATIVE_UPDATED, writableMap);
+        queueActionToJS(EVENT_FEATURED_IMAGE_ID_NATIVE_UPDATED, EVENT_FEATURED_IMAGE_ID_NATIVE_UPDATED, writableMap,
+                false);
+        onContentChangeSent();
     }
 
     public void onConnectionStatusChange(boolean isConnected) {
-        WritableMap writableMap = new WritableNativeMap();
+        WritableMap writableMap = mMapFactory.createMap();
         writableMap.putBoolean(MAP_KEY_IS_CONNECTED, isConnected);
-        queueActionToJS(EVENT_CONNECTION_STATUS_CHANGE, writableMap);
+        // The connection status is reported again when it changes
+        queueActionToJS(EVENT_CONNECTION_STATUS_CHANGE, EVENT_CONNECTION_STATUS_CHANGE, writableMap, true);
     }
 
     @Override public void onReplaceMediaFilesEditedBlock(String mediaFiles, String blockId) {
-        WritableMap writableMap = new WritableNativeMap();
+        WritableMap writableMap = mMapFactory.createMap();
         writableMap.putString(MAP_KEY_REPLACE_BLOCK_HTML, mediaFiles);
         writableMap.putString(MAP_KEY_REPLACE_BLOCK_BLOCK_ID, blockId);
         // this is a critical message so, always enqueue
-        queueActionToJS(EVENT_NAME_MEDIA_REPLACE_BLOCK, writableMap);
+        queueActionToJS(EVENT_NAME_MEDIA_REPLACE_BLOCK + ":" + blockId, EVENT_NAME_MEDIA_REPLACE_BLOCK, writableMap,
+                false);
+        onContentChangeSent();
     }
 
     public void updateCapabilities(GutenbergProps gutenbergProps) {
-        queueActionToJS(MAP_KEY_UPDATE_CAPABILITIES, Arguments.makeNativeMap(gutenbergProps.getUpdatedCapabilitiesProps()));
+        queueActionToJS(MAP_KEY_UPDATE_CAPABILITIES, MAP_KEY_UPDATE_CAPABILITIES,
+                Arguments.makeNativeMap(gutenbergProps.getUpdatedCapabilitiesProps()), false);
+    }
+
+    private static class JSEvent {
+        private final String mName;
+        private final @Nullable WritableMap mData;
+        private final boolean mIsDroppable;
+
+        JSEvent(String name, @Nullable WritableMap data) {
+            this(name, data, false);
+        }
+
+        JSEvent(String name, @Nullable WritableMap data, boolean isDroppable) {
+            mName = name;
+            mData = data;
+            mIsDroppable = isDroppable;
+        }
+    }
+
+    private static class MediaProgress {
+        private final String mEventName;
+        private final int mUploadMediaId;
+        private final @Nullable String mSaveMediaId;
+        private final float mProgress;
+
+        private MediaProgress(String eventName, int uploadMediaId, @Nullable String saveMediaId, float progress) {
+            mEventName = eventName;
+            mUploadMediaId = uploadMediaId;
+            mSaveMediaId = saveMediaId;
+            mProgress = progress;
+        }
+
+        static MediaProgress forUpload(int mediaId, float progress) {
+            return new MediaProgress(EVENT_NAME_MEDIA_UPLOAD, mediaId, null, progress);
+        }
+
+        static MediaProgress forSave(String mediaId, float progress) {
+            return new MediaProgress(EVENT_NAME_MEDIA_SAVE, 0, mediaId, progress);
+        }
+
+        static String getKey(String eventName, String mediaId) {
+            return eventName + ":" + mediaId;
+        }
+
+        String getKey() {
+            return getKey(mEventName, mSaveMediaId != null ? mSaveMediaId : String.valueOf(mUploadMediaId));
+        }
+
+        WritableMap toWritableMap(WritableMapFactory mapFactory) {
+            WritableMap writableMap = mapFactory.createMap();
+            if (mSaveMediaId != null) {
+                writableMap.putInt(MAP_KEY_MEDIA_FILE_STATE, MEDIA_SAVE_STATE_SAVING);
+                writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_ID, mSaveMediaId);
+                writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_URL, null);
+                writableMap.putDouble(MAP_KEY_MEDIA_FILE_MEDIA_ACTION_PROGRESS, mProgress);
+            } else {
+                writableMap.putInt(MAP_KEY_MEDIA_FILE_STATE, MEDIA_UPLOAD_STATE_UPLOADING);
+                writableMap.putInt(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_ID, mUploadMediaId);
+                writableMap.putString(MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_URL, null);
+                writableMap.putDouble(MAP_KEY_MEDIA_FILE_MEDIA_ACTION_PROGRESS, mProgress);
+                writableMap.putMap(MAP_KEY_MEDIA_FILE_METADATA, mapFactory.createMap());
+            }
+            return writableMap;
+        }
+    }
+
+    public static class PendingActionsMetrics {
+        private final int mQueuedCount;
+        private final int mCollapsedCount;
+        private final int mDroppedCount;
+        private final int mFlushedCount;
+
+        PendingActionsMetrics(int queuedCount, int collapsedCount, int droppedCount, int flushedCount) {
+            mQueuedCount = queuedCount;
+            mCollapsedCount = collapsedCount;
+            mDroppedCount = droppedCount;
+            mFlushedCount = flushedCount;
+        }
+
+        /** Actions queued while the editor wasn't mounted */
+        public int getQueuedCount() {
+            return mQueuedCount;
+        }
+
+        /** Queued actions replaced by a later one with the same key */
+        public int getCollapsedCount() {
+            return mCollapsedCount;
+        }
+
+        /** Queued actions dropped because the queue was full, never the final state of a media */
+        public int getDroppedCount() {
+            return mDroppedCount;
+        }
+
+        /** Queued actions emitted once the editor mounted */
+        public int getFlushedCount() {
+            return mFlushedCount;
+        }
     }
 }
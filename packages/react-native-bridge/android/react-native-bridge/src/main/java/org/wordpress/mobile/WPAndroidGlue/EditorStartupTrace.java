@@ -0,0 +1,92 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReactMarker;
+import com.facebook.react.bridge.ReactMarker.MarkerListener;
+import com.facebook.react.bridge.ReactMarkerConstants;
+
+import org.wordpress.mobile.WPAndroidGlue.EditorStartupTracer.Phase;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Times the startup phases of one editor and reports them to its {@link EditorStartupTracer}, if any.
+ */
+class EditorStartupTrace {
+    private final @Nullable EditorStartupTracer mTracer;
+    private final Map<Phase, Long> mStartTimes = new EnumMap<>(Phase.class);
+    private final Set<Phase> mCompletedPhases = EnumSet.noneOf(Phase.class);
+
+    private final MarkerListener mMarkerListener = new MarkerListener() {
+        @Override
+        public void logMarker(ReactMarkerConstants name, @Nullable String tag, int instanceKey) {
+            switch (name) {
+                case CREATE_REACT_CONTEXT_START:
+                    start(Phase.CREATE_REACT_CONTEXT);
+                    break;
+                case CREATE_REACT_CONTEXT_END:
+                    end(Phase.CREATE_REACT_CONTEXT);
+                    ReactMarker.removeListener(this);
+                    break;
+                case RUN_JS_BUNDLE_START:
+                    start(Phase.LOAD_JS_BUNDLE);
+                    break;
+                case RUN_JS_BUNDLE_END:
+                    end(Phase.LOAD_JS_BUNDLE);
+                    break;
+                default:
+                    break;
+            }
+        }
+    };
+
+    EditorStartupTrace(@Nullable EditorStartupTracer tracer) {
+        mTracer = tracer;
+    }
+
+    @Nullable EditorStartupTracer getTracer() {
+        return mTracer;
+    }
+
+    /**
+     * Starts listening to the markers React logs while creating its context, until the context is created.
+     */
+    void traceReactContextCreation() {
+        if (mTracer != null) {
+            ReactMarker.addListener(mMarkerListener);
+        }
+    }
+
+    void start(Phase phase) {
+        if (mTracer == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!mStartTimes.containsKey(phase)) {
+                mStartTimes.put(phase, SystemClock.elapsedRealtime());
+            }
+        }
+    }
+
+    void end(Phase phase) {
+        if (mTracer == null) {
+            return;
+        }
+        long startTime;
+        long endTime = SystemClock.elapsedRealtime();
+        synchronized (this) {
+            Long phaseStartTime = mStartTimes.get(phase);
+            if (phaseStartTime == null || !mCompletedPhases.add(phase)) {
+                return;
+            }
+            startTime = phaseStartTime;
+        }
+        mTracer.onPhaseCompleted(phase, startTime, endTime - startTime);
+    }
+}
@@ -0,0 +1,33 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+/**
+ * Reports where the time goes while the editor boots. An editor reusing a warmed up React instance skips the phases
+ * building it, and one reusing a recycled instance only reports the creation of its new React context.
+ */
+public interface EditorStartupTracer {
+    enum Phase {
+        /** SoLoader.init, in {@link WPAndroidGlueCode#onCreate} */
+        SO_LOADER_INIT,
+        /** Construction of the React packages */
+        GET_PACKAGES,
+        /** ReactInstanceManagerBuilder.build */
+        BUILD_REACT_INSTANCE_MANAGER,
+        /** Creation of the React context, on a background thread, including the JS bundle load */
+        CREATE_REACT_CONTEXT,
+        /** Loading and running the JS bundle */
+        LOAD_JS_BUNDLE,
+        /** ReactRootView.startReactApplication, when the initial title and content are set */
+        START_REACT_APPLICATION,
+        /** From starting the React application to the editor being mounted */
+        EDITOR_MOUNT,
+        /** From the first requestGetHtml to its response */
+        FIRST_HTML_RESPONSE
+    }
+
+    /**
+     * Called once per phase and editor, possibly on a background thread.
+     * @param startTimeMs when the phase started, as given by SystemClock.elapsedRealtime()
+     * @param durationMs how long the phase took
+     */
+    void onPhaseCompleted(Phase phase, long startTimeMs, long durationMs);
+}
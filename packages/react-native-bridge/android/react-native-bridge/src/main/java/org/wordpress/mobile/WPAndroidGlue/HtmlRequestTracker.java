@@ -0,0 +1,202 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps track of the callers waiting for the HTML of the post. Each requestGetHtml has an id, echoed by its
+ * response, so a response only completes the callers of its own request. Callers that ask for the HTML while a
+ * request is in flight share it instead of sending another one, and each of them has its own timeout.
+ */
+class HtmlRequestTracker {
+    interface HtmlRequestSender {
+        void sendHtmlRequest(int requestId);
+    }
+
+    interface HtmlResponseCallback {
+        void onHtmlResponse(HtmlResponse response);
+        void onHtmlTimeout();
+    }
+
+    static class HtmlResponse {
+        final String title;
+        final String html;
+        final boolean changed;
+        final @Nullable ReadableMap contentInfo;
+
+        HtmlResponse(String title, String html, boolean changed, @Nullable ReadableMap contentInfo) {
+            this.title = title;
+            this.html = html;
+            this.changed = changed;
+            this.contentInfo = contentInfo;
+        }
+    }
+
+    private final Object mLock = new Object();
+    private final HtmlRequestSender mSender;
+    private final ScheduledExecutorService mScheduler;
+    private final Executor mTimeoutCallbackExecutor;
+
+    // Requests sent that still have callers waiting for them, by id
+    private final Map<Integer, PendingRequest> mPendingRequests = new HashMap<>();
+    // The most recent pending request, the one new callers join
+    private @Nullable PendingRequest mCurrentRequest;
+    private int mLastRequestId;
+
+    /**
+     * @param timeoutCallbackExecutor where the timeouts call back, so a callback blocking on another request (e.g. a
+     * host callback asking for the content again) doesn't keep the scheduler from firing that request's timeout
+     */
+    HtmlRequestTracker(HtmlRequestSender sender, ScheduledExecutorService scheduler,
+                       Executor timeoutCallbackExecutor) {
+        mSender = sender;
+        mScheduler = scheduler;
+        mTimeoutCallbackExecutor = timeoutCallbackExecutor;
+    }
+
+    /**
+     * Calls back with the response, sending a request only if there isn't one in flight already. The callback is
+     * called on the thread delivering the response, or on the timeout callback executor when the timeout is reached.
+     * @param contentVersion version of the content when asking, kept by the request if a new one is sent
+     */
+    Cancellable request(long contentVersion, long timeoutMs, HtmlResponseCallback callback) {
+        final Waiter waiter = new Waiter(callback);
+        int requestIdToSend = -1;
+        synchronized (mLock) {
+            if (mCurrentRequest == null) {
+                mLastRequestId = mLastRequestId == Integer.MAX_VALUE ? 1 : mLastRequestId + 1;
+                mCurrentRequest = new PendingRequest(mLastRequestId, contentVersion);
+                mPendingRequests.put(mCurrentRequest.mId, mCurrentRequest);
+                requestIdToSend = mCurrentRequest.mId;
+            }
+            waiter.mRequest = mCurrentRequest;
+            mCurrentRequest.mWaiters.add(waiter);
+        }
+        waiter.mTimeout = mScheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (waiter.finish()) {
+                    mTimeoutCallbackExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            waiter.mCallback.onHtmlTimeout();
+                        }
+                    });
+                }
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+
+        if (requestIdToSend != -1) {
+            mSender.sendHtmlRequest(requestIdToSend);
+        }
+        return waiter;
+    }
+
+    boolean isInFlight() {
+        synchronized (mLock) {
+            return mCurrentRequest != null;
+        }
+    }
+
+    /**
+     * Takes the request with the given id out of the pending ones, for its response to complete it.
+     * @return the request, or null if nobody waits for it anymore (it timed out or was cancelled) and the response
+     * is stale
+     */
+    @Nullable PendingRequest claim(int requestId) {
+        synchronized (mLock) {
+            PendingRequest request = mPendingRequests.remove(requestId);
+            if (request != null && request == mCurrentRequest) {
+                mCurrentRequest = null;
+            }
+            return request;
+        }
+    }
+
+    class PendingRequest {
+        private final int mId;
+        private final long mContentVersion;
+        private final List<Waiter> mWaiters = new ArrayList<>();
+
+        private PendingRequest(int id, long contentVersion) {
+            mId = id;
+            mContentVersion = contentVersion;
+        }
+
+        /**
+         * The version of the content when the request was sent: its response includes at least the changes made
+         * up to that version.
+         */
+        long getContentVersion() {
+            return mContentVersion;
+        }
+
+        void complete(HtmlResponse response) {
+            List<Waiter> waiters;
+            synchronized (mLock) {
+                waiters = new ArrayList<>(mWaiters);
+            }
+            for (Waiter waiter : waiters) {
+                if (waiter.finish()) {
+                    waiter.mCallback.onHtmlResponse(response);
+                }
+            }
+        }
+    }
+
+    private void remove(Waiter waiter) {
+        synchronized (mLock) {
+            PendingRequest request = waiter.mRequest;
+            if (request.mWaiters.remove(waiter) && request.mWaiters.isEmpty()) {
+                // Nobody is waiting for it anymore: its response will be discarded, and the next caller sends a new
+                // request instead of waiting for a response that might never come.
+                mPendingRequests.remove(request.mId);
+                if (request == mCurrentRequest) {
+                    mCurrentRequest = null;
+                }
+            }
+        }
+    }
+
+    private class Waiter implements Cancellable {
+        private final HtmlResponseCallback mCallback;
+        private final AtomicBoolean mFinished = new AtomicBoolean();
+        private PendingRequest mRequest;
+        private volatile @Nullable ScheduledFuture<?> mTimeout;
+
+        Waiter(HtmlResponseCallback callback) {
+            mCallback = callback;
+        }
+
+        /**
+         * Returns true only for the first of response, timeout or cancellation to happen.
+         */
+        boolean finish() {
+            if (!mFinished.compareAndSet(false, true)) {
+                return false;
+            }
+            ScheduledFuture<?> timeout = mTimeout;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            remove(this);
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+            finish();
+        }
+    }
+}
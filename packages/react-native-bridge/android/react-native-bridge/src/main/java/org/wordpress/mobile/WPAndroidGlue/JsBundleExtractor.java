@@ -0,0 +1,114 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import android.content.Context;
+import android.content.pm.PackageManager.NameNotFoundException;
+import android.content.res.AssetManager;
+
+import androidx.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * React reads a JS bundle loaded from the assets in the heap, while it memory-maps one loaded from a file, so Hermes
+ * runs its bytecode in place and only the pages used are read. The bundle is extracted once per version of the app to
+ * its files, in the background, and the next editors load it from there.
+ */
+class JsBundleExtractor {
+    static final String BUNDLE_ASSET_NAME = "index.android.bundle";
+
+    private static final String BUNDLE_FOLDER_NAME = "gutenberg";
+    private static final ExecutorService sExtractExecutor =
+            Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "GutenbergJsBundleExtractor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    // Cleared once an extraction is over, so a failed one is tried again by the next editor
+    private static final AtomicBoolean sIsExtracting = new AtomicBoolean();
+
+    /**
+     * Returns the path of the extracted bundle to load, or null to load the asset while it's being extracted for the
+     * next editors.
+     */
+    static @Nullable String getBundleFilePath(Context context) {
+        final Context applicationContext = context.getApplicationContext();
+        final File bundleFolder = new File(applicationContext.getFilesDir(), BUNDLE_FOLDER_NAME);
+        final File bundleFile;
+        try {
+            // The bundle may change with every update of the app
+            long lastUpdateTime = applicationContext.getPackageManager()
+                                                    .getPackageInfo(applicationContext.getPackageName(), 0)
+                                                    .lastUpdateTime;
+            bundleFile = new File(bundleFolder, lastUpdateTime + "." + BUNDLE_ASSET_NAME);
+        } catch (NameNotFoundException e) {
+            return null;
+        }
+
+        if (bundleFile.exists()) {
+            return bundleFile.getAbsolutePath();
+        }
+
+        if (sIsExtracting.compareAndSet(false, true)) {
+            sExtractExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        extract(applicationContext.getAssets(), bundleFolder, bundleFile);
+                    } finally {
+                        sIsExtracting.set(false);
+                    }
+                }
+            });
+        }
+        return null;
+    }
+
+    private static void extract(AssetManager assets, File bundleFolder, File bundleFile) {
+        bundleFolder.mkdirs();
+
+        // Written to a temporary file first, so an editor never loads a partially extracted bundle
+        File temporaryFile = new File(bundleFolder, BUNDLE_ASSET_NAME + ".tmp");
+        try (InputStream input = assets.open(BUNDLE_ASSET_NAME);
+             OutputStream output = new FileOutputStream(temporaryFile)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            AppLog.e(T.EDITOR, "Failed to extract the JS bundle: " + e.getMessage());
+            temporaryFile.delete();
+            return;
+        }
+
+        if (!temporaryFile.renameTo(bundleFile)) {
+            AppLog.e(T.EDITOR, "Failed to extract the JS bundle to " + bundleFile);
+            temporaryFile.delete();
+            return;
+        }
+
+        // The bundles of the previous versions of the app are only deleted once the new one is in place
+        File[] files = bundleFolder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.getName().equals(bundleFile.getName())) {
+                    file.delete();
+                }
+            }
+        }
+    }
+}
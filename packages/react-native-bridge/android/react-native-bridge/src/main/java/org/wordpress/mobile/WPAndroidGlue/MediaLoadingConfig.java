@@ -0,0 +1,201 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.cache.disk.DiskCacheConfig;
+import com.facebook.common.internal.Supplier;
+import com.facebook.imagepipeline.backends.okhttp3.OkHttpImagePipelineConfigFactory;
+import com.facebook.imagepipeline.cache.DefaultBitmapMemoryCacheParamsSupplier;
+import com.facebook.imagepipeline.cache.MemoryCacheParams;
+import com.facebook.imagepipeline.core.ImagePipelineConfig;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+
+/**
+ * Configures the HTTP client and the Fresco image pipeline the editor loads media with. By default, the client has no
+ * HTTP cache and Fresco keeps its own default caches; a disk cache can be set for either, so the media of a post isn't
+ * downloaded again every time the editor is opened.
+ */
+public class MediaLoadingConfig {
+    private static final String HTTP_CACHE_DIRECTORY_NAME = "gutenberg_http";
+    private static final String IMAGE_CACHE_DIRECTORY_NAME = "gutenberg_images";
+
+    private final @Nullable OkHttpClient mBaseHttpClient;
+    private final @Nullable File mHttpCacheDirectory;
+    private final long mHttpCacheSizeBytes;
+    private final int mMaxIdleConnections;
+    private final long mKeepAliveDurationMs;
+    private final int mMaxRequestsPerHost;
+    private final long mImageDiskCacheSizeBytes;
+    private final int mImageMemoryCacheSizeBytes;
+    private final boolean mDownsampleEnabled;
+    private final Bitmap.Config mBitmapConfig;
+
+    private MediaLoadingConfig(Builder builder) {
+        mBaseHttpClient = builder.mBaseHttpClient;
+        mHttpCacheDirectory = builder.mHttpCacheDirectory;
+        mHttpCacheSizeBytes = builder.mHttpCacheSizeBytes;
+        mMaxIdleConnections = builder.mMaxIdleConnections;
+        mKeepAliveDurationMs = builder.mKeepAliveDurationMs;
+        mMaxRequestsPerHost = builder.mMaxRequestsPerHost;
+        mImageDiskCacheSizeBytes = builder.mImageDiskCacheSizeBytes;
+        mImageMemoryCacheSizeBytes = builder.mImageMemoryCacheSizeBytes;
+        mDownsampleEnabled = builder.mDownsampleEnabled;
+        mBitmapConfig = builder.mBitmapConfig;
+    }
+
+    OkHttpClient buildHttpClient(Context context, Interceptor authInterceptor) {
+        OkHttpClient.Builder builder;
+        if (mBaseHttpClient != null) {
+            // Shares the connection pool, dispatcher and cache of the app's client
+            builder = mBaseHttpClient.newBuilder();
+        } else {
+            Dispatcher dispatcher = new Dispatcher();
+            // Also bounds the concurrent streams multiplexed on a single HTTP/2 connection
+            dispatcher.setMaxRequestsPerHost(mMaxRequestsPerHost);
+            builder = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(mMaxIdleConnections, mKeepAliveDurationMs,
+                            TimeUnit.MILLISECONDS))
+                    .dispatcher(dispatcher);
+            if (mHttpCacheSizeBytes > 0) {
+                File cacheDirectory = mHttpCacheDirectory != null
+                        ? mHttpCacheDirectory : new File(context.getCacheDir(), HTTP_CACHE_DIRECTORY_NAME);
+                builder.cache(new Cache(cacheDirectory, mHttpCacheSizeBytes));
+            }
+        }
+        return builder.addInterceptor(authInterceptor).build();
+    }
+
+    ImagePipelineConfig buildImagePipelineConfig(Context context, OkHttpClient client) {
+        ImagePipelineConfig.Builder builder = OkHttpImagePipelineConfigFactory
+                .newBuilder(context, client)
+                .setDownsampleEnabled(mDownsampleEnabled)
+                .setBitmapsConfig(mBitmapConfig);
+        if (mImageDiskCacheSizeBytes > 0) {
+            builder.setMainDiskCacheConfig(DiskCacheConfig.newBuilder(context)
+                                                          .setBaseDirectoryPath(context.getCacheDir())
+                                                          .setBaseDirectoryName(IMAGE_CACHE_DIRECTORY_NAME)
+                                                          .setMaxCacheSize(mImageDiskCacheSizeBytes)
+                                                          .build());
+        }
+        if (mImageMemoryCacheSizeBytes > 0) {
+            final int maxCacheSize = mImageMemoryCacheSizeBytes;
+            // Only the size differs from Fresco's defaults, the limits on the entries still apply
+            final Supplier<MemoryCacheParams> defaultParamsSupplier = new DefaultBitmapMemoryCacheParamsSupplier(
+                    (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE));
+            builder.setBitmapMemoryCacheParamsSupplier(new Supplier<MemoryCacheParams>() {
+                @Override
+                public MemoryCacheParams get() {
+                    MemoryCacheParams defaultParams = defaultParamsSupplier.get();
+                    return new MemoryCacheParams(maxCacheSize, defaultParams.maxCacheEntries,
+                            defaultParams.maxEvictionQueueSize, defaultParams.maxEvictionQueueEntries,
+                            defaultParams.maxCacheEntrySize);
+                }
+            });
+        }
+        return builder.build();
+    }
+
+    public static class Builder {
+        private @Nullable OkHttpClient mBaseHttpClient;
+        private @Nullable File mHttpCacheDirectory;
+        private long mHttpCacheSizeBytes;
+        private int mMaxIdleConnections = 5;
+        private long mKeepAliveDurationMs = TimeUnit.MINUTES.toMillis(5);
+        private int mMaxRequestsPerHost = 5;
+        private long mImageDiskCacheSizeBytes;
+        private int mImageMemoryCacheSizeBytes;
+        private boolean mDownsampleEnabled = true;
+        private Bitmap.Config mBitmapConfig = Bitmap.Config.ARGB_8888;
+
+        /**
+         * Builds the editor's client from the app's one, sharing its connection pool, dispatcher and cache. The
+         * HTTP cache, connection pool and requests per host options are then ignored.
+         */
+        public Builder setBaseHttpClient(@Nullable OkHttpClient baseHttpClient) {
+            mBaseHttpClient = baseHttpClient;
+            return this;
+        }
+
+        /**
+         * Defaults to a folder in the app's cache directory.
+         */
+        public Builder setHttpCacheDirectory(@Nullable File httpCacheDirectory) {
+            mHttpCacheDirectory = httpCacheDirectory;
+            return this;
+        }
+
+        /**
+         * 0, the default, disables the HTTP cache.
+         */
+        public Builder setHttpCacheSizeBytes(long httpCacheSizeBytes) {
+            mHttpCacheSizeBytes = httpCacheSizeBytes;
+            return this;
+        }
+
+        /**
+         * Defaults to 5 idle connections, kept alive 5 minutes.
+         */
+        public Builder setConnectionPool(int maxIdleConnections, long keepAliveDurationMs) {
+            mMaxIdleConnections = maxIdleConnections;
+            mKeepAliveDurationMs = keepAliveDurationMs;
+            return this;
+        }
+
+        /**
+         * Maximum number of requests run concurrently to a host, including those multiplexed on an HTTP/2
+         * connection. Defaults to 5.
+         */
+        public Builder setMaxRequestsPerHost(int maxRequestsPerHost) {
+            mMaxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * 0, the default, keeps Fresco's default disk cache.
+         */
+        public Builder setImageDiskCacheSizeBytes(long imageDiskCacheSizeBytes) {
+            mImageDiskCacheSizeBytes = imageDiskCacheSizeBytes;
+            return this;
+        }
+
+        /**
+         * 0, the default, keeps Fresco's default size, based on the memory available to the app.
+         */
+        public Builder setImageMemoryCacheSizeBytes(int imageMemoryCacheSizeBytes) {
+            mImageMemoryCacheSizeBytes = imageMemoryCacheSizeBytes;
+            return this;
+        }
+
+        /**
+         * Whether large images are decoded at the size they are displayed at. Enabled by default.
+         */
+        public Builder setDownsampleEnabled(boolean downsampleEnabled) {
+            mDownsampleEnabled = downsampleEnabled;
+            return this;
+        }
+
+        /**
+         * Defaults to ARGB_8888. RGB_565 halves the memory used by the images, but drops their transparency.
+         */
+        public Builder setBitmapConfig(Bitmap.Config bitmapConfig) {
+            mBitmapConfig = bitmapConfig;
+            return this;
+        }
+
+        public MediaLoadingConfig build() {
+            return new MediaLoadingConfig(this);
+        }
+    }
+}
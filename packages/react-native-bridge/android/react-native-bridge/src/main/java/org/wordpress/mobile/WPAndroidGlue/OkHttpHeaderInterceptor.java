@@ -1,27 +1,76 @@
 package org.wordpress.mobile.WPAndroidGlue;
 
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
 import org.wordpress.mobile.WPAndroidGlue.WPAndroidGlueCode.OnAuthHeaderRequestedListener;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 
+/**
+ * Adds the auth headers of the host app to the requests. Opt-in: the headers of each host can be kept for a while, so
+ * the requests to a site, like the images of a post, don't all ask the host app for them.
+ */
 public class OkHttpHeaderInterceptor implements Interceptor {
+    interface Clock {
+        long elapsedRealtime();
+    }
+
+    private final Clock mClock;
     private OnAuthHeaderRequestedListener mOnAuthHeaderRequestedListener;
+    private final Map<String, CachedHeaders> mCachedHeaders = new ConcurrentHashMap<>();
+    // Incremented on invalidation, so headers asked for before it aren't cached after it
+    private final AtomicInteger mGeneration = new AtomicInteger();
+    private volatile long mHeadersTtlMs = 0;
+
+    public OkHttpHeaderInterceptor() {
+        this(new Clock() {
+            @Override
+            public long elapsedRealtime() {
+                return SystemClock.elapsedRealtime();
+            }
+        });
+    }
+
+    OkHttpHeaderInterceptor(Clock clock) {
+        mClock = clock;
+    }
 
     void setOnAuthHeaderRequestedListener(OnAuthHeaderRequestedListener onAuthHeaderRequestedListener) {
         mOnAuthHeaderRequestedListener = onAuthHeaderRequestedListener;
+        invalidate();
+    }
+
+    /**
+     * Sets how long the auth headers of a host are reused for. 0, the default, asks the host app for every request.
+     */
+    public void setHeadersTtlMs(long headersTtlMs) {
+        mHeadersTtlMs = headersTtlMs;
+        invalidate();
+    }
+
+    /**
+     * Forgets the auth headers of all hosts, e.g. once a token is rotated, so the next requests ask for new ones.
+     */
+    public void invalidate() {
+        mGeneration.incrementAndGet();
+        mCachedHeaders.clear();
     }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request.Builder builder = chain.request().newBuilder();
 
-        Map<String, String> authHeaders = mOnAuthHeaderRequestedListener != null
-                ? mOnAuthHeaderRequestedListener.onAuthHeaderRequested(chain.request().url().toString()) : null;
+        Map<String, String> authHeaders = getAuthHeaders(chain.request().url());
 
         if (authHeaders != null) {
             for (Map.Entry<String, String> entry : authHeaders.entrySet()) {
@@ -31,4 +80,47 @@ public class OkHttpHeaderInterceptor implements Interceptor {
 
         return chain.proceed(builder.build());
     }
+
+    private @Nullable Map<String, String> getAuthHeaders(HttpUrl url) {
+        OnAuthHeaderRequestedListener listener = mOnAuthHeaderRequestedListener;
+        if (listener == null) {
+            return null;
+        }
+
+        long ttlMs = mHeadersTtlMs;
+        if (ttlMs <= 0) {
+            return listener.onAuthHeaderRequested(url.toString());
+        }
+
+        String host = url.scheme() + "://" + url.host() + ":" + url.port();
+        long now = mClock.elapsedRealtime();
+        CachedHeaders cachedHeaders = mCachedHeaders.get(host);
+        if (cachedHeaders != null && now < cachedHeaders.mExpirationTime) {
+            return cachedHeaders.mHeaders;
+        }
+
+        // Requests racing on an expired entry may all ask for the headers, the last answer is kept
+        int generation = mGeneration.get();
+        Map<String, String> authHeaders = listener.onAuthHeaderRequested(url.toString());
+        if (authHeaders == null || authHeaders.isEmpty()) {
+            // e.g. the host app wasn't signed in to the site yet, it's asked again for the next request
+            mCachedHeaders.remove(host);
+            return authHeaders;
+        }
+        mCachedHeaders.put(host, new CachedHeaders(authHeaders, now + ttlMs));
+        if (generation != mGeneration.get()) {
+            mCachedHeaders.remove(host);
+        }
+        return authHeaders;
+    }
+
+    private static class CachedHeaders {
+        private final Map<String, String> mHeaders;
+        private final long mExpirationTime;
+
+        CachedHeaders(Map<String, String> headers, long expirationTime) {
+            mHeaders = headers;
+            mExpirationTime = expirationTime;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.ReactPackage;
+import com.facebook.react.ViewManagerOnDemandReactPackage;
+import com.facebook.react.bridge.NativeModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.uimanager.ViewManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the view managers of another package to a React instance built with lazy view managers, which only asks
+ * packages implementing {@link ViewManagerOnDemandReactPackage} for them. The package itself stays registered for
+ * its native modules.
+ *
+ * When the names of the view managers are given upfront, they aren't created (nor their constants exported to JS)
+ * until JS renders one of them. Otherwise they are created as soon as React needs their names, like a regular
+ * package's.
+ */
+class OnDemandViewManagersPackage implements ReactPackage, ViewManagerOnDemandReactPackage {
+    private final ReactPackage mPackage;
+    private final @Nullable List<String> mViewManagerNames;
+    private @Nullable Map<String, ViewManager> mViewManagers;
+
+    /**
+     * @param viewManagerNames the names of the view managers of the package, or null to learn them by creating them
+     */
+    OnDemandViewManagersPackage(ReactPackage reactPackage, @Nullable List<String> viewManagerNames) {
+        mPackage = reactPackage;
+        mViewManagerNames = viewManagerNames;
+    }
+
+    @Override
+    public List<String> getViewManagerNames(ReactApplicationContext reactContext) {
+        if (mViewManagerNames != null) {
+            return mViewManagerNames;
+        }
+        return new ArrayList<>(getViewManagers(reactContext).keySet());
+    }
+
+    @Override
+    public @Nullable ViewManager createViewManager(ReactApplicationContext reactContext, String viewManagerName) {
+        return getViewManagers(reactContext).get(viewManagerName);
+    }
+
+    @Override
+    public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
+        // Registered by the package itself
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
+        return new ArrayList<>(getViewManagers(reactContext).values());
+    }
+
+    private synchronized Map<String, ViewManager> getViewManagers(ReactApplicationContext reactContext) {
+        if (mViewManagers == null) {
+            mViewManagers = new HashMap<>();
+            for (ViewManager viewManager : mPackage.createViewManagers(reactContext)) {
+                mViewManagers.put(viewManager.getName(), viewManager);
+            }
+        }
+        return mViewManagers;
+    }
+}
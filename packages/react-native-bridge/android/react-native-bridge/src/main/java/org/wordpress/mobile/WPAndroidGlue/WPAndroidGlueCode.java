@@ -22,13 +22,14 @@ import com.BV.LinearGradient.LinearGradientPackage;
 import com.brentvatne.react.ReactVideoPackage;
 import com.dylanvann.fastimage.FastImageViewPackage;
 import com.facebook.hermes.reactexecutor.HermesExecutorFactory;
-import com.facebook.imagepipeline.backends.okhttp3.OkHttpImagePipelineConfigFactory;
 import com.facebook.imagepipeline.core.ImagePipelineConfig;
 import com.facebook.react.ReactInstanceManager;
 import com.facebook.react.ReactInstanceManagerBuilder;
 import com.facebook.react.ReactPackage;
 import com.facebook.react.ReactRootView;
+import com.facebook.react.ViewManagerOnDemandReactPackage;
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JSBundleLoader;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
@@ -54,6 +55,7 @@ import org.linusu.RNGetRandomValuesPackage;
 import org.reactnative.maskedview.RNCMaskedViewPackage;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.mobile.ReactNativeAztec.AztecHtmlMetrics;
 import org.wordpress.mobile.ReactNativeAztec.ReactAztecPackage;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.BuildConfig;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent;
@@ -61,21 +63,32 @@ import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.MediaSelectedCallback;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.ReplaceUnsupportedBlockCallback;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.RNMedia;
+import org.wordpress.mobile.ReactNativeGutenbergBridge.RNReactNativeGutenbergBridgeModule;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.RNReactNativeGutenbergBridgePackage;
+import org.wordpress.mobile.WPAndroidGlue.EditorStartupTracer.Phase;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import okhttp3.OkHttpClient;
 
+import static org.wordpress.mobile.ReactNativeGutenbergBridge.RNReactNativeGutenbergBridgeModule.MAP_KEY_REQUEST_GET_HTML_REQUEST_ID;
+
 
 public class WPAndroidGlueCode {
     private ReactRootView mReactRootView;
@@ -83,7 +96,7 @@ public class WPAndroidGlueCode {
     private ReactContext mReactContext;
     private RNReactNativeGutenbergBridgePackage mRnReactNativeGutenbergBridgePackage;
     private MediaSelectedCallback mMediaSelectedCallback;
-    private DeferredEventEmitter mDeferredEventEmitter = new DeferredEventEmitter();
+    private DeferredEventEmitter mDeferredEventEmitter = createDeferredEventEmitter();
     private boolean mMediaPickedByUserOnBlock;
 
     /**
@@ -125,21 +138,179 @@ public class WPAndroidGlueCode {
     private boolean mContentChanged;
     private ReadableMap mContentInfo;
     private boolean mShouldUpdateContent;
-    private CountDownLatch mGetContentCountDownLatch;
+    private final HtmlRequestTracker mHtmlRequestTracker = new HtmlRequestTracker(
+            new HtmlRequestTracker.HtmlRequestSender() {
+                @Override
+                public void sendHtmlRequest(int requestId) {
+                    mStartupTrace.start(Phase.FIRST_HTML_RESPONSE);
+                    sendToEditor(module -> module.getHtmlFromJS(requestId));
+                }
+            }, sGetContentExecutor, sGetContentCallbackExecutor);
+    // Bumped on every change of the content, by the Aztec views and by the block editor, and after sending the
+    // editor anything that may change it
+    private final AtomicLong mContentVersion = new AtomicLong();
+    private volatile @Nullable ContentSnapshot mContentSnapshot;
     private WeakReference<View> mLastFocusedView = null;
     private RequestExecutor mRequestExecutor;
     private ShowSuggestionsUtil mShowSuggestionsUtil;
     private @Nullable Bundle mEditorTheme = null;
 
+    private static final long GET_CONTENT_TIMEOUT_MS = 10000;
+    private static final long GET_CONTENT_INFO_TIMEOUT_MS = 5000;
+    // getTitleAndContent waits a bit longer than the request's own timeout, in case its callback comes late
+    private static final long GET_CONTENT_AWAIT_MARGIN_MS = 1000;
+
+    private static final Cancellable NO_OP_CANCELLABLE = new Cancellable() {
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private static final ScheduledExecutorService sGetContentExecutor =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "GutenbergGetContent");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    // Runs the timeout callbacks, which end up in the host's listeners: they may ask for the content again and wait
+    // for it, and that must not hold up sGetContentExecutor, which fires the timeouts.
+    private static final ExecutorService sGetContentCallbackExecutor =
+            Executors.newCachedThreadPool(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "GutenbergGetContentCallback");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
     private static OkHttpHeaderInterceptor sAddCookiesInterceptor = new OkHttpHeaderInterceptor();
-    private static OkHttpClient sOkHttpClient = new OkHttpClient.Builder().addInterceptor(sAddCookiesInterceptor).build();
+    private static MediaLoadingConfig sMediaLoadingConfig = new MediaLoadingConfig.Builder().build();
+    private static @Nullable OkHttpClient sOkHttpClient;
     private boolean mIsDarkMode;
     private Consumer<Exception> mExceptionLogger;
     private Consumer<String> mBreadcrumbLogger;
     private boolean mShouldHandleBackPress = false;
+    private Context mApplicationContext;
+    private volatile EditorStartupTrace mStartupTrace = new EditorStartupTrace(null);
+    private @Nullable AztecHtmlMetrics mAztecHtmlMetrics;
+
+    // Warmed up instance, ready to be used by the next editor. Only accessed from the main thread.
+    private static @Nullable WPAndroidGlueCode sPooledGlueCode;
+    private boolean mIsPooled;
+    private boolean mReactInstanceBuiltWithDarkMode;
+
+    private static boolean sLazyViewManagersEnabled;
+
+    public WPAndroidGlueCode() {
+    }
 
     public void onCreate(Context context) {
+        mStartupTrace.start(Phase.SO_LOADER_INIT);
         SoLoader.init(context, /* native exopackage */ false);
+        mStartupTrace.end(Phase.SO_LOADER_INIT);
+    }
+
+    /**
+     * Sets the tracer to report the startup phases of the editor to. Set it before {@link #onCreate} to get all of
+     * them.
+     */
+    public void setEditorStartupTracer(@Nullable EditorStartupTracer editorStartupTracer) {
+        mStartupTrace = new EditorStartupTrace(editorStartupTracer);
+    }
+
+    /**
+     * Opt-in: view managers are created, and their constants exported to JS, only when JS first renders one of their
+     * views, instead of all of them when the React context is created. Those of packages most posts don't need, like
+     * video, webview or fast image, aren't created at all unless the post uses them.
+     * Applies to the React instances built afterwards, by {@link #warmUp} or {@link #onCreateView}.
+     */
+    public static void setLazyViewManagersEnabled(boolean lazyViewManagersEnabled) {
+        sLazyViewManagersEnabled = lazyViewManagersEnabled;
+    }
+
+    /**
+     * Configures how the editor loads media. The HTTP client is used by the React instances built afterwards, while
+     * the image pipeline is only set up by the first one of the process, so set it before opening or warming up the
+     * editor.
+     */
+    public static void setMediaLoadingConfig(MediaLoadingConfig mediaLoadingConfig) {
+        sMediaLoadingConfig = mediaLoadingConfig;
+        sOkHttpClient = null;
+    }
+
+    /**
+     * Forgets the auth headers the editor reuses for the requests to a site, e.g. once a token is rotated.
+     */
+    public static void invalidateAuthHeaders() {
+        sAddCookiesInterceptor.invalidate();
+    }
+
+    /**
+     * Opt-in: sets how long the auth headers of a site are reused for. 0, the default, asks for them on every request.
+     */
+    public static void setAuthHeadersTtlMs(long authHeadersTtlMs) {
+        sAddCookiesInterceptor.setHeadersTtlMs(authHeadersTtlMs);
+    }
+
+    /**
+     * Opt-in: builds a React instance, with all its packages and the JS bundle, and starts creating its React context
+     * in the background, so the next editor opened with {@link #obtain()} doesn't have to wait for it. Once that
+     * editor is destroyed, {@link #recycle()} resets the instance and keeps it for the next one instead of tearing it
+     * down.
+     * Must be called on the main thread, usually when the app starts.
+     */
+    public static void warmUp(Application application, boolean isDebug, boolean isDarkMode,
+                              @Nullable EditorStartupTracer editorStartupTracer) {
+        if (sPooledGlueCode != null) {
+            return;
+        }
+
+        WPAndroidGlueCode glueCode = new WPAndroidGlueCode();
+        glueCode.setEditorStartupTracer(editorStartupTracer);
+        glueCode.onCreate(application);
+        glueCode.mIsPooled = true;
+        glueCode.mIsDarkMode = isDarkMode;
+        glueCode.buildReactInstanceManager(application, isDebug);
+        glueCode.mReactInstanceManager.createReactContextInBackground();
+        sPooledGlueCode = glueCode;
+    }
+
+    /**
+     * Returns the instance warmed up by {@link #warmUp}, if there is one available, or a new instance otherwise.
+     * Must be called on the main thread.
+     */
+    public static WPAndroidGlueCode obtain() {
+        WPAndroidGlueCode glueCode = sPooledGlueCode;
+        if (glueCode == null) {
+            return new WPAndroidGlueCode();
+        }
+        sPooledGlueCode = null;
+        return glueCode;
+    }
+
+    /**
+     * Opt-in: the media upload and save events of the editor are sent to JS in batches, once per flush of their
+     * progress, instead of one by one. Call it for each editor, before it mounts.
+     */
+    public void setMediaEventsBatchingEnabled(boolean mediaEventsBatchingEnabled) {
+        mDeferredEventEmitter.setMediaEventsBatchingEnabled(mediaEventsBatchingEnabled);
+    }
+
+    public DeferredEventEmitter.PendingActionsMetrics getPendingActionsMetrics() {
+        return mDeferredEventEmitter.getPendingActionsMetrics();
+    }
+
+    /**
+     * Counts of the HTML work done by the Aztec views, for the current editor. Null until the React packages are
+     * created.
+     */
+    public @Nullable AztecHtmlMetrics getAztecHtmlMetrics() {
+        return mAztecHtmlMetrics;
     }
 
     public boolean hasReactRootView() {
@@ -275,6 +446,17 @@ public class WPAndroidGlueCode {
         mRnReactNativeGutenbergBridgePackage = new RNReactNativeGutenbergBridgePackage(new GutenbergBridgeJS2Parent() {
             @Override
             public void responseHtml(String title, String html, boolean changed, ReadableMap contentInfo) {
+                // Responses to our own requests echo their id, the ones without it were sent by the editor itself
+                HtmlRequestTracker.PendingRequest request = null;
+                if (contentInfo != null && contentInfo.hasKey(MAP_KEY_REQUEST_GET_HTML_REQUEST_ID)) {
+                    request = mHtmlRequestTracker.claim(contentInfo.getInt(MAP_KEY_REQUEST_GET_HTML_REQUEST_ID));
+                    if (request == null) {
+                        // Everyone waiting for it gave up, and a newer response might have been received already
+                        AppLog.w(T.EDITOR, "Discarding a stale response from requestGetHtml.");
+                        return;
+                    }
+                }
+
                 mContentHtml = html;
                 mTitle = title;
                 // This code is called twice. When getTitle and getContent are called.
@@ -283,11 +465,12 @@ public class WPAndroidGlueCode {
 
                 mContentInfo = contentInfo;
 
-                // Gutenberg mobile sends us html response even without we asking for it so, check if the latch is there.
-                //  This is probably an indication of a bug on the RN side of things though.
-                //  Related: https://github.com/WordPress/gutenberg/pull/16260#issuecomment-506727286
-                if (mGetContentCountDownLatch != null) {
-                    mGetContentCountDownLatch.countDown();
+                if (request != null) {
+                    HtmlRequestTracker.HtmlResponse response =
+                            new HtmlRequestTracker.HtmlResponse(title, html, mContentChanged, contentInfo);
+                    mContentSnapshot = new ContentSnapshot(request.getContentVersion(), response);
+                    mStartupTrace.end(Phase.FIRST_HTML_RESPONSE);
+                    request.complete(response);
                 }
             }
 
@@ -378,9 +561,12 @@ public class WPAndroidGlueCode {
 
             @Override
             public void editorDidMount(ReadableArray unsupportedBlockNames) {
+                mStartupTrace.end(Phase.EDITOR_MOUNT);
                 mOnEditorMountListener.onEditorDidMount(unsupportedBlockNames.toArrayList());
                 mDeferredEventEmitter.setEmitter(mRnReactNativeGutenbergBridgePackage
                         .getRNReactNativeGutenbergBridgeModule());
+                // the media events deferred until now are on their way
+                onContentChangeSent();
                 mIsEditorMounted = true;
                 if (TextUtils.isEmpty(mTitle) && TextUtils.isEmpty(mContentHtml)) {
                     setFocusOnTitle();
@@ -391,6 +577,11 @@ public class WPAndroidGlueCode {
                 refreshEditorTheme();
             }
 
+            @Override
+            public void editorDidChangeContent() {
+                mContentVersion.incrementAndGet();
+            }
+
             @Override
             public void editorDidAutosave() {
                 if (mOnEditorAutosaveListener != null) {
@@ -575,11 +766,34 @@ public class WPAndroidGlueCode {
             }
         }, mIsDarkMode);
 
-        return Arrays.asList(
-                new MainReactPackage(getMainPackageConfig(getImagePipelineConfig(sOkHttpClient))),
+        // The loggers are read when used, an instance built by warmUp gets them later in onCreateView
+        ReactAztecPackage aztecPackage = new ReactAztecPackage(new Consumer<Exception>() {
+            @Override
+            public void accept(Exception exception) {
+                if (mExceptionLogger != null) {
+                    mExceptionLogger.accept(exception);
+                }
+            }
+        }, new Consumer<String>() {
+            @Override
+            public void accept(String breadcrumb) {
+                if (mBreadcrumbLogger != null) {
+                    mBreadcrumbLogger.accept(breadcrumb);
+                }
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                mContentVersion.incrementAndGet();
+            }
+        });
+        mAztecHtmlMetrics = aztecPackage.getHtmlMetrics();
+
+        List<ReactPackage> packages = Arrays.asList(
+                new MainReactPackage(getMainPackageConfig(getImagePipelineConfig(getOkHttpClient(mApplicationContext)))),
                 new SvgPackage(),
                 new LinearGradientPackage(),
-                new ReactAztecPackage(mExceptionLogger, mBreadcrumbLogger),
+                aztecPackage,
                 new ReactVideoPackage(),
                 new ReactSliderPackage(),
                 new RNGetRandomValuesPackage(),
@@ -600,6 +814,43 @@ public class WPAndroidGlueCode {
                 new ClipboardPackage(),
                 new FastImageViewPackage(),
                 mRnReactNativeGutenbergBridgePackage);
+
+        if (!sLazyViewManagersEnabled) {
+            return packages;
+        }
+
+        // With lazy view managers, React only gets them from the packages that can create them on demand
+        List<ReactPackage> packagesWithOnDemandViewManagers = new ArrayList<>(packages);
+        for (ReactPackage reactPackage : packages) {
+            if (!(reactPackage instanceof ViewManagerOnDemandReactPackage)) {
+                packagesWithOnDemandViewManagers.add(new OnDemandViewManagersPackage(reactPackage,
+                        getRarelyUsedViewManagerNames(reactPackage)));
+            }
+        }
+        return packagesWithOnDemandViewManagers;
+    }
+
+    /**
+     * Returns the names of the view managers of the packages whose views most posts don't render, so they are created
+     * only if they do. Null for the other packages.
+     */
+    private static @Nullable List<String> getRarelyUsedViewManagerNames(ReactPackage reactPackage) {
+        if (reactPackage instanceof ReactVideoPackage) {
+            return Collections.singletonList("RCTVideo");
+        } else if (reactPackage instanceof ReactSliderPackage) {
+            return Collections.singletonList("RNCSlider");
+        } else if (reactPackage instanceof RNCWebViewPackage) {
+            return Collections.singletonList("RNCWebView");
+        } else if (reactPackage instanceof RNCMaskedViewPackage) {
+            return Collections.singletonList("RNCMaskedView");
+        } else if (reactPackage instanceof LinearGradientPackage) {
+            return Collections.singletonList("BVLinearGradient");
+        } else if (reactPackage instanceof FastImageViewPackage) {
+            return Collections.singletonList("FastImageView");
+        } else if (reactPackage instanceof ClipboardPackage) {
+            return Collections.emptyList();
+        }
+        return null;
     }
 
     private MainPackageConfig getMainPackageConfig(ImagePipelineConfig imagePipelineConfig) {
@@ -607,8 +858,14 @@ public class WPAndroidGlueCode {
     }
 
     private ImagePipelineConfig getImagePipelineConfig(OkHttpClient client) {
-        return OkHttpImagePipelineConfigFactory
-                .newBuilder(mReactRootView.getContext(), client).build();
+        return sMediaLoadingConfig.buildImagePipelineConfig(mApplicationContext, client);
+    }
+
+    private static OkHttpClient getOkHttpClient(Context context) {
+        if (sOkHttpClient == null) {
+            sOkHttpClient = sMediaLoadingConfig.buildHttpClient(context, sAddCookiesInterceptor);
+        }
+        return sOkHttpClient;
     }
 
     public void onCreateView(Context initContext,
@@ -628,24 +885,54 @@ public class WPAndroidGlueCode {
         // Ref: https://github.com/wordpress-mobile/WordPress-Android/issues/9685#issuecomment-1908452392
         mReactRootView.setSaveFromParentEnabled(false);
 
+        // A warmed up instance is reused unless the editor reads another initial color scheme than the one it needs
+        boolean canReuseReactInstance = mIsPooled && mReactInstanceManager != null
+                                        && mReactInstanceBuiltWithDarkMode == mIsDarkMode;
+        if (!canReuseReactInstance) {
+            if (mIsPooled && mReactInstanceManager != null) {
+                mReactInstanceManager.destroy();
+                mReactContext = null;
+            }
+            buildReactInstanceManager(application, isDebug);
+        }
+
+        Bundle initialProps = gutenbergProps.getInitialProps(mReactRootView.getAppProperties());
+        mReactRootView.setAppProperties(initialProps);
+    }
+
+    private void buildReactInstanceManager(Application application, boolean isDebug) {
+        mApplicationContext = application.getApplicationContext();
+        mReactInstanceBuiltWithDarkMode = mIsDarkMode;
+        mStartupTrace.start(Phase.GET_PACKAGES);
+        List<ReactPackage> packages = getPackages();
+        mStartupTrace.end(Phase.GET_PACKAGES);
+
         ReactInstanceManagerBuilder builder =
                 ReactInstanceManager.builder()
                                     .setApplication(application)
                                     .setJSMainModulePath("index")
-                                    .addPackages(getPackages())
+                                    .addPackages(packages)
                                     .setUseDeveloperSupport(isDebug)
                                     .setJavaScriptExecutorFactory(new HermesExecutorFactory())
+                                    .setLazyViewManagersEnabled(sLazyViewManagersEnabled)
                                     .setInitialLifecycleState(LifecycleState.BEFORE_CREATE);
         if (BuildConfig.SHOULD_ATTACH_JS_BUNDLE) {
-            builder.setBundleAssetName("index.android.bundle");
+            String bundleFilePath = JsBundleExtractor.getBundleFilePath(application);
+            if (bundleFilePath != null) {
+                // The source URL is still the asset's, for the images bundled with the editor to resolve to resources
+                builder.setJSBundleLoader(JSBundleLoader.createFileLoader(bundleFilePath,
+                        "assets://" + JsBundleExtractor.BUNDLE_ASSET_NAME, false));
+            } else {
+                builder.setBundleAssetName(JsBundleExtractor.BUNDLE_ASSET_NAME);
+            }
         }
+        mStartupTrace.start(Phase.BUILD_REACT_INSTANCE_MANAGER);
         mReactInstanceManager = builder.build();
+        mStartupTrace.end(Phase.BUILD_REACT_INSTANCE_MANAGER);
         mReactInstanceManager.addReactInstanceEventListener(context -> {
             mReactContext = context;
         });
-
-        Bundle initialProps = gutenbergProps.getInitialProps(mReactRootView.getAppProperties());
-        mReactRootView.setAppProperties(initialProps);
+        mStartupTrace.traceReactContextCreation();
     }
 
     public void attachToContainer(ViewGroup viewGroup,
@@ -780,6 +1067,74 @@ public class WPAndroidGlueCode {
         }
     }
 
+    /**
+     * Hands an instance obtained from {@link #obtain()} back once its editor is destroyed, and its content saved, for
+     * the next editor to reuse its React instance. The React context, with all the JS state of the editor, is created
+     * again in the background, which runs the whole JS bundle again: only the native side (SoLoader, the packages, the
+     * React instance) is actually reused. An editor opened before the new context is ready waits for it, and how long
+     * that takes hasn't been measured yet. The next editor reports it to its {@link EditorStartupTracer}, as
+     * CREATE_REACT_CONTEXT and LOAD_JS_BUNDLE, before START_REACT_APPLICATION and EDITOR_MOUNT.
+     * Does nothing for instances that weren't warmed up.
+     * Must be called on the main thread.
+     */
+    public void recycle() {
+        if (!mIsPooled || mReactInstanceManager == null) {
+            return;
+        }
+        if (mReactRootView != null) {
+            AppLog.w(T.EDITOR, "recycle was called before onDestroy, the instance is not reused.");
+            return;
+        }
+        if (sPooledGlueCode != null) {
+            // Another instance is already waiting for the next editor
+            mReactInstanceManager.destroy();
+            mReactInstanceManager = null;
+            mReactContext = null;
+            return;
+        }
+
+        resetForNextEditor();
+        // The stores of the editor (undo history, entity edits, notices, uploads...) live in the JS context, which
+        // doesn't know about the editor being recycled. A new one is created in the background, from the bundle
+        // already loaded, while no editor is showing.
+        mReactContext = null;
+        mStartupTrace.traceReactContextCreation();
+        mReactInstanceManager.recreateReactContextInBackground();
+        sPooledGlueCode = this;
+    }
+
+    /**
+     * Forgets everything the glue code knows about the post that was edited, keeping the React instance for the next
+     * editor to use it.
+     */
+    private void resetForNextEditor() {
+        mContentHtml = "";
+        mTitle = "";
+        mContentInitialized = false;
+        mTitleInitialized = false;
+        mContentChanged = false;
+        mContentInfo = null;
+        mShouldUpdateContent = false;
+        mIsEditorMounted = false;
+        mContentSnapshot = null;
+        mContentVersion.incrementAndGet();
+        mMediaToAddAfterMounting.clear();
+        // The events of the previous editor, e.g. a progress flush scheduled for it, don't reach the next one
+        DeferredEventEmitter previousEventEmitter = mDeferredEventEmitter;
+        previousEventEmitter.cancel();
+        mDeferredEventEmitter = createDeferredEventEmitter();
+        mDeferredEventEmitter.setMediaEventsBatchingEnabled(previousEventEmitter.isMediaEventsBatchingEnabled());
+        mMediaPickedByUserOnBlock = false;
+        mAppendsMultipleSelectedToSiblingBlocks = false;
+        mLastFocusedView = null;
+        mEditorTheme = null;
+        // The next editor reports its own startup
+        mStartupTrace = new EditorStartupTrace(mStartupTrace.getTracer());
+        if (mAztecHtmlMetrics != null) {
+            mAztecHtmlMetrics.reset();
+        }
+    }
+
     public void onBackPressed() {
         if (mReactInstanceManager != null) {
             mReactInstanceManager.onBackPressed();
@@ -791,12 +1146,12 @@ public class WPAndroidGlueCode {
     }
 
     public void setFocusOnTitle() {
-        mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().setFocusOnTitleInJS();
+        sendToEditor(module -> module.setFocusOnTitleInJS());
     }
 
     public void appendNewMediaBlock(int mediaId, String mediaUri, String mediaType) {
-        mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule()
-                                            .appendNewMediaBlock(mediaId, mediaUri, mediaType);
+        sendToEditor(module -> module.appendNewMediaBlock(mediaId, mediaUri, mediaType));
+        onContentChangeSent();
     }
 
     public void setPreferredColorScheme(boolean isDarkMode) {
@@ -809,8 +1164,7 @@ public class WPAndroidGlueCode {
 
     public void updateTheme(@Nullable Bundle editorTheme) {
         if (mIsEditorMounted) {
-            mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule()
-                                                .updateTheme(editorTheme);
+            sendToEditor(module -> module.updateTheme(editorTheme));
         } else {
             // Editor hasn't mounted yet. Save theme and load once editor loads
             AppLog.d(AppLog.T.EDITOR, "Editor theme not applied reason: Editor not mounted");
@@ -819,9 +1173,9 @@ public class WPAndroidGlueCode {
     }
 
     private void refreshEditorTheme() {
-        if (mEditorTheme != null) {
-            mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule()
-                                                .updateTheme(mEditorTheme);
+        final Bundle editorTheme = mEditorTheme;
+        if (editorTheme != null) {
+            sendToEditor(module -> module.updateTheme(editorTheme));
             mEditorTheme = null;
         }
     }
@@ -839,15 +1193,18 @@ public class WPAndroidGlueCode {
     }
 
     public void onUndoPressed() {
-        mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().onUndoPressed();
+        sendToEditor(module -> module.onUndoPressed());
+        onContentChangeSent();
     }
 
     public void onRedoPressed() {
-        mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().onRedoPressed();
+        sendToEditor(module -> module.onRedoPressed());
+        onContentChangeSent();
     }
 
     public void onContentUpdate(String content) {
-        mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().onContentUpdate(content);
+        sendToEditor(module -> module.onContentUpdate(content));
+        onContentChangeSent();
     }
 
     public void setTitle(String title) {
@@ -889,6 +1246,7 @@ public class WPAndroidGlueCode {
     }
 
     private void initContent(String title, String content) {
+        mContentVersion.incrementAndGet();
         if (content != null) {
             mContentHtml = content;
         }
@@ -897,10 +1255,14 @@ public class WPAndroidGlueCode {
         }
 
         Bundle appProps = GutenbergProps.Companion.initContent(mReactRootView.getAppProperties(), title, content);
+        mStartupTrace.start(Phase.EDITOR_MOUNT);
+        mStartupTrace.start(Phase.START_REACT_APPLICATION);
         mReactRootView.startReactApplication(mReactInstanceManager, "gutenberg", appProps);
+        mStartupTrace.end(Phase.START_REACT_APPLICATION);
     }
 
     private void updateContent(String title, String content) {
+        mContentVersion.incrementAndGet();
         if (content != null) {
             mContentHtml = content;
         }
@@ -909,10 +1271,10 @@ public class WPAndroidGlueCode {
         }
         if (hasReactContext()) {
             if (content != null) {
-                mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().setHtmlInJS(content);
+                sendToEditor(module -> module.setHtmlInJS(content));
             }
             if (title != null) {
-                mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().setTitleInJS(title);
+                sendToEditor(module -> module.setTitleInJS(title));
             }
         }
     }
@@ -921,28 +1283,24 @@ public class WPAndroidGlueCode {
         void onGetContentInterrupted(InterruptedException ie);
     }
 
-    public synchronized CharSequence getContent(CharSequence originalContent,
-                                                OnGetContentInterrupted onGetContentInterrupted) {
-        if (hasReactContext()) {
-            mGetContentCountDownLatch = new CountDownLatch(1);
+    public interface OnGetTitleAndContentListener {
+        void onTitleAndContentReceived(Pair<CharSequence, CharSequence> titleAndContent);
 
-            mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().getHtmlFromJS();
-
-            try {
-                boolean success = mGetContentCountDownLatch.await(10, TimeUnit.SECONDS);
-                if (!success) {
-                    AppLog.e(T.EDITOR, "Timeout reached before response from requestGetHtml.");
-                }
-            } catch (InterruptedException ie) {
-                onGetContentInterrupted.onGetContentInterrupted(ie);
-            }
+        /**
+         * Called when the timeout is reached before a response, or when there is no React context.
+         * @param lastKnownTitleAndContent the title and content as of the last response, or the original content
+         */
+        void onTitleAndContentFailed(Pair<CharSequence, CharSequence> lastKnownTitleAndContent);
+    }
 
-            return mContentChanged ? (mContentHtml == null ? "" : mContentHtml) : originalContent;
-        } else {
+    public CharSequence getContent(CharSequence originalContent,
+                                   OnGetContentInterrupted onGetContentInterrupted) {
+        if (!hasReactContext()) {
             AppLog.e(T.EDITOR, "getContent was called when there was no React context.");
+            return originalContent;
         }
 
-        return originalContent;
+        return getTitleAndContent(originalContent, onGetContentInterrupted).second;
     }
 
     /** This method retrieves both the title and the content from the Gutenberg editor by the emission of a single
@@ -953,68 +1311,184 @@ public class WPAndroidGlueCode {
      * @param onGetContentInterrupted callback to invoke if thread is interrupted before the timeout
      * @return A Pair of CharSequence with the first being the title and the second being the content
      */
-    public synchronized Pair<CharSequence, CharSequence> getTitleAndContent(CharSequence originalContent,
+    public Pair<CharSequence, CharSequence> getTitleAndContent(CharSequence originalContent,
                                                                OnGetContentInterrupted onGetContentInterrupted) {
-        if (hasReactContext()) {
-            mGetContentCountDownLatch = new CountDownLatch(1);
+        if (!hasReactContext()) {
+            AppLog.e(T.EDITOR, "getTitleAndContent was called when there was no React context.");
+            return new Pair<>("", originalContent);
+        }
 
-            mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().getHtmlFromJS();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Pair<CharSequence, CharSequence>> result = new AtomicReference<>();
+        Cancellable request = getTitleAndContentAsync(originalContent, GET_CONTENT_TIMEOUT_MS,
+                new OnGetTitleAndContentListener() {
+                    @Override
+                    public void onTitleAndContentReceived(Pair<CharSequence, CharSequence> titleAndContent) {
+                        result.set(titleAndContent);
+                        latch.countDown();
+                    }
 
-            try {
-                boolean success = mGetContentCountDownLatch.await(10, TimeUnit.SECONDS);
-                if (!success) {
-                    AppLog.e(T.EDITOR, "Timeout reached before response from requestGetHtml.");
-                }
-            } catch (InterruptedException ie) {
-                onGetContentInterrupted.onGetContentInterrupted(ie);
-            }
+                    @Override
+                    public void onTitleAndContentFailed(Pair<CharSequence, CharSequence> lastKnownTitleAndContent) {
+                        result.set(lastKnownTitleAndContent);
+                        latch.countDown();
+                    }
+                });
 
-            return new Pair<>(
-                    mTitle == null ? "" : mTitle,
-                    mContentChanged ? (mContentHtml == null ? "" : mContentHtml) : originalContent
-            );
-        } else {
-            AppLog.e(T.EDITOR, "getTitleAndContent was called when there was no React context.");
+        try {
+            if (!latch.await(GET_CONTENT_TIMEOUT_MS + GET_CONTENT_AWAIT_MARGIN_MS, TimeUnit.MILLISECONDS)) {
+                request.cancel();
+                AppLog.e(T.EDITOR, "Timeout reached waiting for the response or the timeout of requestGetHtml.");
+                return getLastKnownTitleAndContent(originalContent);
+            }
+        } catch (InterruptedException ie) {
+            request.cancel();
+            onGetContentInterrupted.onGetContentInterrupted(ie);
+            return getLastKnownTitleAndContent(originalContent);
         }
 
-        return new Pair<>("", originalContent);
+        return result.get();
     }
 
-    public boolean triggerGetContentInfo(OnContentInfoReceivedListener onContentInfoReceivedListener) {
-        if (hasReactContext() && (mGetContentCountDownLatch == null || mGetContentCountDownLatch.getCount() == 0)) {
-            if (!mIsEditorMounted) {
-                onContentInfoReceivedListener.onEditorNotReady();
-                return false;
+    /**
+     * Retrieves the title and the content from the Gutenberg editor without blocking the calling thread. Callers
+     * asking while a request is in flight share it instead of serializing the post again, and each of them gets
+     * its response (or its timeout) independently. When the content didn't change since the last response, that
+     * response is used without asking the editor again.
+     * @param originalContent fallback content in case the content didn't change, or the timeout is reached
+     * @param timeoutMs how long to wait for the response before calling
+     *                  {@link OnGetTitleAndContentListener#onTitleAndContentFailed}
+     * @param listener called once, unless the request is cancelled first: on a background thread, or before
+     *                 returning when the last response is used
+     * @return A handle to cancel the request
+     */
+    public Cancellable getTitleAndContentAsync(final CharSequence originalContent, long timeoutMs,
+                                               final OnGetTitleAndContentListener listener) {
+        if (!hasReactContext()) {
+            AppLog.e(T.EDITOR, "getTitleAndContentAsync was called when there was no React context.");
+            listener.onTitleAndContentFailed(new Pair<>("", originalContent));
+            return NO_OP_CANCELLABLE;
+        }
+
+        return requestHtml(timeoutMs, new HtmlRequestTracker.HtmlResponseCallback() {
+            @Override
+            public void onHtmlResponse(HtmlRequestTracker.HtmlResponse response) {
+                listener.onTitleAndContentReceived(
+                        toTitleAndContent(response.title, response.html, response.changed, originalContent));
             }
-            new Thread(new Runnable() {
-                @Override public void run() {
-                    // We need to synchronize access to (and overwriting of) the latch to avoid race conditions
-                    synchronized (WPAndroidGlueCode.this) {
-                        mGetContentCountDownLatch = new CountDownLatch(1);
 
-                        mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().getHtmlFromJS();
+            @Override
+            public void onHtmlTimeout() {
+                AppLog.e(T.EDITOR, "Timeout reached before response from requestGetHtml.");
+                listener.onTitleAndContentFailed(getLastKnownTitleAndContent(originalContent));
+            }
+        });
+    }
 
-                        try {
-                            boolean success = mGetContentCountDownLatch.await(5, TimeUnit.SECONDS);
-                            if (!success) {
-                                AppLog.e(T.EDITOR, "Timeout reached before response from requestGetHtml.");
-                            }
-                            if (mContentInfo == null) {
-                                onContentInfoReceivedListener.onContentInfoFailed();
-                            } else {
-                                onContentInfoReceivedListener.onContentInfoReceived(mContentInfo.toHashMap());
-                            }
-                        } catch (InterruptedException ie) {
-                            onContentInfoReceivedListener.onContentInfoFailed();
-                        }
-                    }
-                }
-            }).start();
+    /**
+     * Calls back with the HTML of the post, right away if the content didn't change since the last response.
+     */
+    private Cancellable requestHtml(long timeoutMs, HtmlRequestTracker.HtmlResponseCallback callback) {
+        long contentVersion = mContentVersion.get();
+        ContentSnapshot snapshot = mContentSnapshot;
+        if (snapshot != null && snapshot.mContentVersion == contentVersion) {
+            callback.onHtmlResponse(snapshot.mResponse);
+            return NO_OP_CANCELLABLE;
+        }
+
+        return mHtmlRequestTracker.request(contentVersion, timeoutMs, callback);
+    }
+
+    /**
+     * Sends something to the editor after the events the DeferredEventEmitter has yet to emit, so the editor gets
+     * everything in the order it was sent: e.g. a request for the content comes after the media upload that
+     * succeeded before it, and what is sent when the editor mounts comes after the events deferred until then.
+     * The send runs on the DeferredEventEmitter's thread, not the caller's, so it must only emit to JS.
+     */
+    private void sendToEditor(final Consumer<RNReactNativeGutenbergBridgeModule> send) {
+        mDeferredEventEmitter.emitAfterPendingEvents(
+                () -> send.accept(mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule()));
+    }
+
+    private DeferredEventEmitter createDeferredEventEmitter() {
+        DeferredEventEmitter deferredEventEmitter = new DeferredEventEmitter();
+        deferredEventEmitter.setOnContentChangeSentListener(this::onContentChangeSent);
+        return deferredEventEmitter;
+    }
+
+    /**
+     * Called right after sending the editor something that may change the content (media events, blocks to
+     * append or replace...), for the next getContent to ask the editor again instead of reusing the last response.
+     * A request sent before this still gets a snapshot of the previous version, so it is never reused afterwards.
+     */
+    private void onContentChangeSent() {
+        mContentVersion.incrementAndGet();
+    }
 
-            return true;
+    private Pair<CharSequence, CharSequence> getLastKnownTitleAndContent(CharSequence originalContent) {
+        return toTitleAndContent(mTitle, mContentHtml, mContentChanged, originalContent);
+    }
+
+    private static Pair<CharSequence, CharSequence> toTitleAndContent(String title, String html, boolean changed,
+                                                                      CharSequence originalContent) {
+        return new Pair<>(
+                title == null ? "" : title,
+                changed ? (html == null ? "" : html) : originalContent
+        );
+    }
+
+    /**
+     * The last response to one of our requests, with the version of the content it includes.
+     */
+    private static class ContentSnapshot {
+        private final long mContentVersion;
+        private final HtmlRequestTracker.HtmlResponse mResponse;
+
+        ContentSnapshot(long contentVersion, HtmlRequestTracker.HtmlResponse response) {
+            mContentVersion = contentVersion;
+            mResponse = response;
+        }
+    }
+
+    /**
+     * Requests the content structure metrics (word count, block count...) from the Gutenberg editor. Triggers made
+     * while a request is in flight share it, and the listener is called on a background thread (or right away, when
+     * the content didn't change since the last response).
+     * @return false if there is no React context, or the editor is not mounted yet
+     */
+    public boolean triggerGetContentInfo(final OnContentInfoReceivedListener onContentInfoReceivedListener) {
+        if (!hasReactContext()) {
+            return false;
         }
+        if (!mIsEditorMounted) {
+            onContentInfoReceivedListener.onEditorNotReady();
+            return false;
+        }
+
+        requestHtml(GET_CONTENT_INFO_TIMEOUT_MS, new HtmlRequestTracker.HtmlResponseCallback() {
+            @Override
+            public void onHtmlResponse(HtmlRequestTracker.HtmlResponse response) {
+                onContentInfo(response.contentInfo);
+            }
+
+            @Override
+            public void onHtmlTimeout() {
+                AppLog.e(T.EDITOR, "Timeout reached before response from requestGetHtml.");
+                onContentInfo(mContentInfo);
+            }
+
+            private void onContentInfo(@Nullable ReadableMap contentInfo) {
+                if (contentInfo == null) {
+                    onContentInfoReceivedListener.onContentInfoFailed();
+                } else {
+                    HashMap<String, Object> contentInfoMap = contentInfo.toHashMap();
+                    contentInfoMap.remove(MAP_KEY_REQUEST_GET_HTML_REQUEST_ID);
+                    onContentInfoReceivedListener.onContentInfoReceived(contentInfoMap);
+                }
+            }
+        });
 
-        return false;
+        return true;
     }
 
     private String getMediaType(final boolean isVideo) {
@@ -1032,11 +1506,11 @@ public class WPAndroidGlueCode {
                 mReactRootView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
             }
         }
-        mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().toggleEditorMode();
+        sendToEditor(module -> module.toggleEditorMode());
     }
 
     public void sendToJSPostSaveEvent() {
-        mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().sendToJSPostSaveEvent();
+        sendToEditor(module -> module.sendToJSPostSaveEvent());
     }
 
     public void appendMediaFiles(ArrayList<Media> mediaList) {
@@ -1072,6 +1546,7 @@ public class WPAndroidGlueCode {
         }
 
         mAppendsMultipleSelectedToSiblingBlocks = false;
+        onContentChangeSent();
     }
 
     private void sendOrDeferAppendMediaSignal(Media media) {
@@ -1157,9 +1632,12 @@ public class WPAndroidGlueCode {
     }
 
     public void replaceUnsupportedBlock(String content, String blockId) {
-        if (mReplaceUnsupportedBlockCallback != null) {
-            mReplaceUnsupportedBlockCallback.replaceUnsupportedBlock(content, blockId);
+        final ReplaceUnsupportedBlockCallback replaceUnsupportedBlockCallback = mReplaceUnsupportedBlockCallback;
+        if (replaceUnsupportedBlockCallback != null) {
+            mDeferredEventEmitter.emitAfterPendingEvents(
+                    () -> replaceUnsupportedBlockCallback.replaceUnsupportedBlock(content, blockId));
             mReplaceUnsupportedBlockCallback = null;
+            onContentChangeSent();
         }
     }
 
@@ -0,0 +1,614 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Test;
+import org.wordpress.mobile.WPAndroidGlue.DeferredEventEmitter.PendingActionsMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeferredEventEmitterTest {
+    private static final String EVENT_NAME_MEDIA_UPLOAD = "mediaUpload";
+    private static final String EVENT_NAME_MEDIA_SAVE = "mediaSave";
+    private static final int MEDIA_UPLOAD_STATE_UPLOADING = 1;
+    private static final int MEDIA_UPLOAD_STATE_SUCCEEDED = 2;
+    private static final int MEDIA_UPLOAD_STATE_FAILED = 3;
+    private static final int MEDIA_UPLOAD_STATE_PAUSED = 11;
+    private static final int MEDIA_SAVE_STATE_SAVING = 5;
+    private static final int MEDIA_SAVE_STATE_SUCCEEDED = 6;
+    // Longer than the interval progress is flushed at
+    private static final long FLUSH_WAIT_MS = 500;
+
+    private final ScheduledExecutorService mDispatchExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final DeferredEventEmitter mEmitter = new DeferredEventEmitter(mDispatchExecutor,
+            new DeferredEventEmitter.WritableMapFactory() {
+                @Override
+                public WritableMap createMap() {
+                    return new JavaOnlyMap();
+                }
+
+                @Override
+                public WritableArray createArray() {
+                    return new JavaOnlyArray();
+                }
+            });
+    private final RecordingJSEventEmitter mJSEventEmitter = new RecordingJSEventEmitter();
+
+    private static class JSEvent {
+        final String mName;
+        final @Nullable WritableMap mData;
+
+        JSEvent(String name, @Nullable WritableMap data) {
+            mName = name;
+            mData = data;
+        }
+    }
+
+    private static class RecordingJSEventEmitter implements DeferredEventEmitter.JSEventEmitter {
+        private final List<JSEvent> mEvents = new ArrayList<>();
+
+        @Override
+        public synchronized void emitToJS(String eventName, @Nullable WritableMap data) {
+            mEvents.add(new JSEvent(eventName, data));
+        }
+
+        synchronized List<JSEvent> getEvents() {
+            return new ArrayList<>(mEvents);
+        }
+    }
+
+    // Waits for the events dispatched so far to be handled, not for the flush they scheduled
+    private void drainEvents() throws Exception {
+        mDispatchExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get();
+    }
+
+    // Waits for the events dispatched so far to be handled, and for the flush they scheduled
+    private void drain() throws Exception {
+        drainEvents();
+        mDispatchExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, FLUSH_WAIT_MS, TimeUnit.MILLISECONDS).get();
+    }
+
+    private static ReadableMap upload(int state, int mediaId, double progress) {
+        JavaOnlyMap map = new JavaOnlyMap();
+        map.putInt("state", state);
+        map.putInt("mediaId", mediaId);
+        map.putDouble("progress", progress);
+        return map;
+    }
+
+    private static void assertUpload(ReadableMap expected, @Nullable ReadableMap actual) {
+        assertEquals(expected.getInt("state"), actual.getInt("state"));
+        assertEquals(expected.getInt("mediaId"), actual.getInt("mediaId"));
+        assertEquals(expected.getDouble("progress"), actual.getDouble("progress"), 0.0001);
+    }
+
+    @After
+    public void tearDown() {
+        mDispatchExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testProgressIsCoalescedPerMedia() throws Exception {
+        mEmitter.setEmitter(mJSEventEmitter);
+        for (int i = 1; i <= 100; i++) {
+            mEmitter.onMediaFileUploadProgress(1, i / 100f);
+            mEmitter.onMediaFileUploadProgress(2, i / 200f);
+        }
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(2, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 1, 1), events.get(0).mData);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 2, 0.5), events.get(1).mData);
+    }
+
+    @Test
+    public void testProgressWaitsForTheNextFlush() throws Exception {
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.onMediaFileUploadProgress(1, 0.5f);
+        drainEvents();
+
+        assertTrue(mJSEventEmitter.getEvents().isEmpty());
+
+        drain();
+        assertEquals(1, mJSEventEmitter.getEvents().size());
+    }
+
+    @Test
+    public void testSaveProgressIsCoalescedPerMedia() throws Exception {
+        mEmitter.setEmitter(mJSEventEmitter);
+        for (int i = 1; i <= 100; i++) {
+            mEmitter.onMediaFileSaveProgress("a", i / 100f);
+        }
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(1, events.size());
+        assertEquals(EVENT_NAME_MEDIA_SAVE, events.get(0).mName);
+        assertEquals(MEDIA_SAVE_STATE_SAVING, events.get(0).mData.getInt("state"));
+        assertEquals("a", events.get(0).mData.getString("mediaId"));
+        assertEquals(1, events.get(0).mData.getDouble("progress"), 0.0001);
+    }
+
+    @Test
+    public void testStatesOtherThanProgressAreNotCoalesced() throws Exception {
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.onMediaFileUploadPaused(1);
+        mEmitter.onMediaFileUploadFailed(1);
+        mEmitter.onMediaFileUploadFailed(1);
+        drainEvents();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(3, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_PAUSED, 1, 0), events.get(0).mData);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_FAILED, 1, 0), events.get(1).mData);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_FAILED, 1, 0), events.get(2).mData);
+    }
+
+    @Test
+    public void testFinalStateFlushesThePendingProgressFirst() throws Exception {
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.onMediaFileUploadProgress(1, 0.5f);
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        // Not waiting for the flush of the progress
+        drainEvents();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(2, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 1, 0.5), events.get(0).mData);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), events.get(1).mData);
+    }
+
+    @Test
+    public void testOnlyTheLatestStateOfAMediaIsQueuedBeforeMount() throws Exception {
+        mEmitter.onMediaFileUploadFailed(1);
+        mEmitter.onMediaFileUploadSucceeded(2, "url", 20, null);
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        mEmitter.setEmitter(mJSEventEmitter);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(2, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 2, 1), events.get(0).mData);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), events.get(1).mData);
+
+        PendingActionsMetrics metrics = mEmitter.getPendingActionsMetrics();
+        assertEquals(3, metrics.getQueuedCount());
+        assertEquals(1, metrics.getCollapsedCount());
+        assertEquals(0, metrics.getDroppedCount());
+        assertEquals(2, metrics.getFlushedCount());
+    }
+
+    @Test
+    public void testFinalStatesAreNeverDroppedBeforeMount() throws Exception {
+        int mediaCount = 150;
+        for (int mediaId = 1; mediaId <= mediaCount; mediaId++) {
+            mEmitter.onMediaFileUploadSucceeded(mediaId, "url", mediaId, null);
+        }
+        mEmitter.setEmitter(mJSEventEmitter);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(mediaCount, events.size());
+        for (int i = 0; i < mediaCount; i++) {
+            assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, i + 1, 1), events.get(i).mData);
+        }
+        assertEquals(0, mEmitter.getPendingActionsMetrics().getDroppedCount());
+    }
+
+    @Test
+    public void testFinalStatesBeyondTheBoundAreCollapsedPerMedia() throws Exception {
+        int mediaCount = 150;
+        for (int mediaId = 1; mediaId <= mediaCount; mediaId++) {
+            mEmitter.onMediaFileUploadFailed(mediaId);
+        }
+        for (int mediaId = 1; mediaId <= mediaCount; mediaId++) {
+            mEmitter.onMediaFileUploadSucceeded(mediaId, "url", mediaId, null);
+        }
+        mEmitter.setEmitter(mJSEventEmitter);
+        drain();
+
+        // One final state per media, the last one, however many came in
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(mediaCount, events.size());
+        for (int i = 0; i < mediaCount; i++) {
+            assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, i + 1, 1), events.get(i).mData);
+        }
+        PendingActionsMetrics metrics = mEmitter.getPendingActionsMetrics();
+        assertEquals(mediaCount, metrics.getCollapsedCount());
+        assertEquals(0, metrics.getDroppedCount());
+    }
+
+    @Test
+    public void testOldestProgressIsDroppedFirstWhenTheQueueIsFull() throws Exception {
+        mEmitter.onConnectionStatusChange(false);
+        for (int mediaId = 1; mediaId <= 10; mediaId++) {
+            mEmitter.onMediaFileUploadProgress(mediaId, 0.5f);
+        }
+        // Along with the connection status and the progress of 10 media, 5 more than the queue holds
+        for (int mediaId = 11; mediaId <= 104; mediaId++) {
+            mEmitter.onMediaFileUploadSucceeded(mediaId, "url", mediaId, null);
+        }
+        mEmitter.setEmitter(mJSEventEmitter);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(100, events.size());
+        assertEquals("connectionStatusChange", events.get(0).mName);
+        for (int i = 1; i <= 94; i++) {
+            assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, i + 10, 1), events.get(i).mData);
+        }
+        for (int i = 95; i < 100; i++) {
+            assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, i - 89, 0.5), events.get(i).mData);
+        }
+        // Progress isn't a queued action
+        assertEquals(0, mEmitter.getPendingActionsMetrics().getDroppedCount());
+    }
+
+    @Test
+    public void testConnectionStatusIsDroppedBeforeFinalStates() throws Exception {
+        mEmitter.onConnectionStatusChange(false);
+        for (int mediaId = 1; mediaId <= 100; mediaId++) {
+            mEmitter.onMediaFileUploadSucceeded(mediaId, "url", mediaId, null);
+        }
+        mEmitter.setEmitter(mJSEventEmitter);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(100, events.size());
+        assertEquals(EVENT_NAME_MEDIA_UPLOAD, events.get(0).mName);
+        assertEquals(1, mEmitter.getPendingActionsMetrics().getDroppedCount());
+    }
+
+    @Test
+    public void testLastKnownProgressIsReplayedOnMount() throws Exception {
+        mEmitter.onMediaFileUploadProgress(1, 0.2f);
+        mEmitter.onMediaFileUploadProgress(1, 0.4f);
+        mEmitter.setEmitter(mJSEventEmitter);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(1, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 1, 0.4), events.get(0).mData);
+    }
+
+    @Test
+    public void testProgressOfEachMediaIsKeptUntilMount() throws Exception {
+        mEmitter.onMediaFileUploadProgress(1, 0.2f);
+        mEmitter.onMediaFileSaveProgress("a", 0.3f);
+        mEmitter.onMediaFileUploadProgress(2, 0.4f);
+        // Longer than the flush interval, nothing is dropped meanwhile
+        drain();
+        mEmitter.setEmitter(mJSEventEmitter);
+        drainEvents();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(3, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 1, 0.2), events.get(0).mData);
+        assertEquals(EVENT_NAME_MEDIA_SAVE, events.get(1).mName);
+        assertEquals("a", events.get(1).mData.getString("mediaId"));
+        assertEquals(0.3, events.get(1).mData.getDouble("progress"), 0.0001);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 2, 0.4), events.get(2).mData);
+    }
+
+    @Test
+    public void testFinalStateBeforeMountReplacesTheProgress() throws Exception {
+        mEmitter.onMediaFileUploadProgress(1, 0.5f);
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        mEmitter.setEmitter(mJSEventEmitter);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(1, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), events.get(0).mData);
+    }
+
+    @Test
+    public void testProgressAfterAFinalStateBeforeMountIsReplayedAfterIt() throws Exception {
+        mEmitter.onMediaFileUploadFailed(1);
+        // The upload is retried
+        mEmitter.onMediaFileUploadProgress(1, 0.1f);
+        mEmitter.setEmitter(mJSEventEmitter);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(2, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_FAILED, 1, 0), events.get(0).mData);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 1, 0.1), events.get(1).mData);
+    }
+
+    @Test
+    public void testCancelledEmitterDoesNotEmitAnymore() throws Exception {
+        mEmitter.setEmitter(mJSEventEmitter);
+        // Schedules a flush of the progress
+        mEmitter.onMediaFileUploadProgress(1, 0.5f);
+        mEmitter.cancel();
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        drain();
+
+        assertTrue(mJSEventEmitter.getEvents().isEmpty());
+    }
+
+    @Test
+    public void testBatchedEventsAreEmittedTogetherInOrder() throws Exception {
+        mEmitter.setMediaEventsBatchingEnabled(true);
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.onMediaFileUploadProgress(1, 0.5f);
+        mEmitter.onMediaFileUploadProgress(2, 0.25f);
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(1, events.size());
+        assertEquals(EVENT_NAME_MEDIA_UPLOAD + "Batch", events.get(0).mName);
+        ReadableArray batch = events.get(0).mData.getArray("events");
+        assertEquals(3, batch.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 1, 0.5), batch.getMap(0));
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), batch.getMap(1));
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 2, 0.25), batch.getMap(2));
+    }
+
+    @Test
+    public void testMediaEventsAreNotBatchedByDefault() throws Exception {
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(1, events.size());
+        assertEquals(EVENT_NAME_MEDIA_UPLOAD, events.get(0).mName);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), events.get(0).mData);
+    }
+
+    @Test
+    public void testUploadAndSaveEventsAreBatchedSeparately() throws Exception {
+        mEmitter.setMediaEventsBatchingEnabled(true);
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        mEmitter.onMediaFileSaveSucceeded("a", "url");
+        mEmitter.onMediaFileUploadFailed(2);
+        drain();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(2, events.size());
+        assertEquals(EVENT_NAME_MEDIA_UPLOAD + "Batch", events.get(0).mName);
+        ReadableArray uploadBatch = events.get(0).mData.getArray("events");
+        assertEquals(2, uploadBatch.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), uploadBatch.getMap(0));
+        assertUpload(upload(MEDIA_UPLOAD_STATE_FAILED, 2, 0), uploadBatch.getMap(1));
+
+        assertEquals(EVENT_NAME_MEDIA_SAVE + "Batch", events.get(1).mName);
+        ReadableArray saveBatch = events.get(1).mData.getArray("events");
+        assertEquals(1, saveBatch.size());
+        assertEquals(MEDIA_SAVE_STATE_SUCCEEDED, saveBatch.getMap(0).getInt("state"));
+        assertEquals("a", saveBatch.getMap(0).getString("mediaId"));
+    }
+
+    @Test
+    public void testEventsOtherThanMediaAreNotBatched() throws Exception {
+        mEmitter.setMediaEventsBatchingEnabled(true);
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.sendToJSFeaturedImageId(10);
+        drainEvents();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(1, events.size());
+        assertEquals("featuredImageIdNativeUpdated", events.get(0).mName);
+        assertEquals(10, events.get(0).mData.getInt("featuredImageId"));
+    }
+
+    private void requestHtmlAfterPendingEvents() {
+        mEmitter.emitAfterPendingEvents(new Runnable() {
+            @Override
+            public void run() {
+                mJSEventEmitter.emitToJS("requestGetHtml", null);
+            }
+        });
+    }
+
+    @Test
+    public void testProgressDoesNotInvalidateTheContentSnapshot() {
+        final AtomicInteger contentChangesSent = new AtomicInteger();
+        mEmitter.setOnContentChangeSentListener(new Runnable() {
+            @Override
+            public void run() {
+                contentChangesSent.incrementAndGet();
+            }
+        });
+
+        mEmitter.onMediaFileUploadProgress(1, 0.5f);
+        mEmitter.onMediaFileSaveProgress("a", 0.5f);
+        mEmitter.onConnectionStatusChange(true);
+        assertEquals(0, contentChangesSent.get());
+
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        mEmitter.onMediaFileUploadFailed(2);
+        mEmitter.onMediaFileUploadPaused(3);
+        mEmitter.onUploadMediaFileClear(1);
+        mEmitter.onMediaFileSaveSucceeded("a", "url");
+        mEmitter.onMediaFileSaveFailed("b");
+        mEmitter.onSaveMediaFileClear("a");
+        mEmitter.onMediaCollectionSaveResult("a", true);
+        mEmitter.onMediaIdChanged("a", "c", "url");
+        mEmitter.sendToJSFeaturedImageId(10);
+        mEmitter.onReplaceMediaFilesEditedBlock("<p></p>", "block");
+        assertEquals(11, contentChangesSent.get());
+    }
+
+    @Test
+    public void testSucceededUploadReachesJSBeforeAContentRequestAfterIt() throws Exception {
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        requestHtmlAfterPendingEvents();
+        drainEvents();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(2, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), events.get(0).mData);
+        assertEquals("requestGetHtml", events.get(1).mName);
+    }
+
+    @Test
+    public void testBatchedEventsReachJSBeforeAContentRequestAfterThem() throws Exception {
+        mEmitter.setMediaEventsBatchingEnabled(true);
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.onMediaFileUploadProgress(1, 0.5f);
+        mEmitter.onMediaFileUploadSucceeded(2, "url", 20, null);
+        // Not waiting for the flush of the batch
+        requestHtmlAfterPendingEvents();
+        drainEvents();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(2, events.size());
+        assertEquals(EVENT_NAME_MEDIA_UPLOAD + "Batch", events.get(0).mName);
+        ReadableArray batch = events.get(0).mData.getArray("events");
+        assertEquals(2, batch.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 2, 1), batch.getMap(0));
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 1, 0.5), batch.getMap(1));
+        assertEquals("requestGetHtml", events.get(1).mName);
+
+        // Nothing is left for the scheduled flush
+        drain();
+        assertEquals(2, mJSEventEmitter.getEvents().size());
+    }
+
+    @Test
+    public void testEventsDeferredUntilMountReachJSBeforeWhatIsSentOnMount() throws Exception {
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        mEmitter.setEmitter(mJSEventEmitter);
+        mEmitter.emitAfterPendingEvents(new Runnable() {
+            @Override
+            public void run() {
+                mJSEventEmitter.emitToJS("mediaAppend", null);
+            }
+        });
+        drainEvents();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(2, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), events.get(0).mData);
+        assertEquals("mediaAppend", events.get(1).mName);
+    }
+
+    // e.g. WPAndroidGlueCode's setFocusOnTitle, updateTheme, toggleEditorMode or replaceUnsupportedBlock
+    private void sendAfterPendingEvents(final String eventName) {
+        mEmitter.emitAfterPendingEvents(new Runnable() {
+            @Override
+            public void run() {
+                mJSEventEmitter.emitToJS(eventName, null);
+            }
+        });
+    }
+
+    @Test
+    public void testSendsToTheEditorKeepTheirOrderWithTheMediaEvents() throws Exception {
+        mEmitter.onMediaFileUploadSucceeded(1, "url", 10, null);
+        mEmitter.setEmitter(mJSEventEmitter);
+        sendAfterPendingEvents("setFocusOnTitle");
+        sendAfterPendingEvents("updateTheme");
+        mEmitter.onMediaFileUploadProgress(2, 0.5f);
+        sendAfterPendingEvents("toggleHTMLMode");
+        sendAfterPendingEvents("replaceBlock");
+        drainEvents();
+
+        List<JSEvent> events = mJSEventEmitter.getEvents();
+        assertEquals(6, events.size());
+        assertUpload(upload(MEDIA_UPLOAD_STATE_SUCCEEDED, 1, 1), events.get(0).mData);
+        assertEquals("setFocusOnTitle", events.get(1).mName);
+        assertEquals("updateTheme", events.get(2).mName);
+        assertUpload(upload(MEDIA_UPLOAD_STATE_UPLOADING, 2, 0.5), events.get(3).mData);
+        assertEquals("toggleHTMLMode", events.get(4).mName);
+        assertEquals("replaceBlock", events.get(5).mName);
+    }
+
+    @Test
+    public void testConcurrentEventsAcrossMountKeepTheOrderOfEachMedia() throws Exception {
+        final int threadCount = 8;
+        final int mediaPerThread = 5;
+        final int progressPerMedia = 200;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threadCount);
+
+        for (int t = 0; t < threadCount; t++) {
+            final int firstMediaId = t * mediaPerThread + 1;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 1; i <= progressPerMedia; i++) {
+                            for (int mediaId = firstMediaId; mediaId < firstMediaId + mediaPerThread; mediaId++) {
+                                mEmitter.onMediaFileUploadProgress(mediaId, (float) i / (progressPerMedia + 1));
+                            }
+                        }
+                        for (int mediaId = firstMediaId; mediaId < firstMediaId + mediaPerThread; mediaId++) {
+                            mEmitter.onMediaFileUploadSucceeded(mediaId, "url", mediaId, null);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+
+        start.countDown();
+        // The editor mounts while the events are coming in
+        Thread.sleep(1);
+        mEmitter.setEmitter(mJSEventEmitter);
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        drain();
+
+        Map<Integer, Double> lastProgress = new HashMap<>();
+        Map<Integer, Integer> succeededCount = new HashMap<>();
+        for (JSEvent event : mJSEventEmitter.getEvents()) {
+            assertEquals(EVENT_NAME_MEDIA_UPLOAD, event.mName);
+            int mediaId = event.mData.getInt("mediaId");
+            assertFalse("Event after the upload of " + mediaId + " succeeded", succeededCount.containsKey(mediaId));
+            if (event.mData.getInt("state") == MEDIA_UPLOAD_STATE_SUCCEEDED) {
+                succeededCount.put(mediaId, 1);
+            } else {
+                double progress = event.mData.getDouble("progress");
+                Double previousProgress = lastProgress.get(mediaId);
+                assertTrue("Progress of " + mediaId + " went back", previousProgress == null
+                                                                   || progress > previousProgress);
+                lastProgress.put(mediaId, progress);
+            }
+        }
+        assertEquals(threadCount * mediaPerThread, succeededCount.size());
+
+        // Nothing was left in the queue
+        PendingActionsMetrics metrics = mEmitter.getPendingActionsMetrics();
+        assertEquals(metrics.getQueuedCount() - metrics.getCollapsedCount() - metrics.getDroppedCount(),
+                metrics.getFlushedCount());
+    }
+}
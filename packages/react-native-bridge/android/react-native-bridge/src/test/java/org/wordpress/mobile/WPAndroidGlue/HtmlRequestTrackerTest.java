@@ -0,0 +1,218 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.wordpress.mobile.WPAndroidGlue.HtmlRequestTracker.HtmlResponse;
+import org.wordpress.mobile.WPAndroidGlue.HtmlRequestTracker.HtmlResponseCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HtmlRequestTrackerTest {
+    private static final long CONTENT_VERSION = 1;
+    private static final long NO_TIMEOUT_MS = 60000;
+
+    private final ScheduledExecutorService mScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService mCallbackExecutor = Executors.newCachedThreadPool();
+    private final List<Integer> mSentRequestIds = new ArrayList<>();
+    private final HtmlRequestTracker mTracker = new HtmlRequestTracker(new HtmlRequestTracker.HtmlRequestSender() {
+        @Override
+        public void sendHtmlRequest(int requestId) {
+            mSentRequestIds.add(requestId);
+        }
+    }, mScheduler, mCallbackExecutor);
+
+    private static class RecordingCallback implements HtmlResponseCallback {
+        final List<HtmlResponse> mResponses = new ArrayList<>();
+        final CountDownLatch mTimedOut = new CountDownLatch(1);
+
+        @Override
+        public void onHtmlResponse(HtmlResponse response) {
+            mResponses.add(response);
+        }
+
+        @Override
+        public void onHtmlTimeout() {
+            mTimedOut.countDown();
+        }
+    }
+
+    private static HtmlResponse response(String html) {
+        return new HtmlResponse("title", html, true, null);
+    }
+
+    // What the glue does when JS answers the request with the given id
+    private boolean respond(int requestId, HtmlResponse response) {
+        HtmlRequestTracker.PendingRequest request = mTracker.claim(requestId);
+        if (request == null) {
+            return false;
+        }
+        request.complete(response);
+        return true;
+    }
+
+    private int lastSentRequestId() {
+        return mSentRequestIds.get(mSentRequestIds.size() - 1);
+    }
+
+    @After
+    public void tearDown() {
+        mScheduler.shutdownNow();
+        mCallbackExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallersShareTheRequestInFlight() {
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, first);
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, second);
+        HtmlResponse response = response("<p>a</p>");
+        assertTrue(respond(lastSentRequestId(), response));
+
+        assertEquals(1, mSentRequestIds.size());
+        assertEquals(1, first.mResponses.size());
+        assertSame(response, first.mResponses.get(0));
+        assertSame(response, second.mResponses.get(0));
+        assertFalse(mTracker.isInFlight());
+    }
+
+    @Test
+    public void testCallersAfterAResponseSendANewRequest() {
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, new RecordingCallback());
+        respond(lastSentRequestId(), response("<p>a</p>"));
+        RecordingCallback callback = new RecordingCallback();
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, callback);
+
+        assertEquals(2, mSentRequestIds.size());
+        assertTrue(callback.mResponses.isEmpty());
+    }
+
+    @Test
+    public void testCancelledCallersAreNotCalledBack() {
+        RecordingCallback cancelled = new RecordingCallback();
+        RecordingCallback other = new RecordingCallback();
+
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, cancelled).cancel();
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, other);
+        respond(lastSentRequestId(), response("<p>a</p>"));
+
+        assertTrue(cancelled.mResponses.isEmpty());
+        assertEquals(1, other.mResponses.size());
+    }
+
+    @Test
+    public void testRequestWithoutWaitersIsNotShared() {
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, new RecordingCallback()).cancel();
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, new RecordingCallback());
+
+        assertEquals(2, mSentRequestIds.size());
+    }
+
+    @Test
+    public void testEachCallerHasItsOwnTimeout() throws InterruptedException {
+        RecordingCallback impatient = new RecordingCallback();
+        RecordingCallback patient = new RecordingCallback();
+
+        mTracker.request(CONTENT_VERSION, 10, impatient);
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, patient);
+
+        assertTrue(impatient.mTimedOut.await(5, TimeUnit.SECONDS));
+        assertTrue(mTracker.isInFlight());
+
+        respond(lastSentRequestId(), response("<p>a</p>"));
+        assertTrue(impatient.mResponses.isEmpty());
+        assertEquals(1, patient.mResponses.size());
+        assertEquals(1, patient.mTimedOut.getCount());
+    }
+
+    @Test
+    public void testTimeoutCallbackCanWaitForAnotherTimeout() throws InterruptedException {
+        final RecordingCallback retry = new RecordingCallback();
+        final CountDownLatch retryTimedOut = new CountDownLatch(1);
+
+        mTracker.request(CONTENT_VERSION, 10, new RecordingCallback() {
+            @Override
+            public void onHtmlTimeout() {
+                // like a host listener asking for the content again, and blocking until it gets it
+                mTracker.request(CONTENT_VERSION, 10, retry);
+                try {
+                    if (retry.mTimedOut.await(5, TimeUnit.SECONDS)) {
+                        retryTimedOut.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        assertTrue(retryTimedOut.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testEachCallerGetsTheResponseToItsOwnRequest() {
+        RecordingCallback first = new RecordingCallback();
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, first);
+        int firstRequestId = lastSentRequestId();
+        HtmlResponse firstResponse = response("<p>a</p>");
+        respond(firstRequestId, firstResponse);
+
+        RecordingCallback second = new RecordingCallback();
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, second);
+        int secondRequestId = lastSentRequestId();
+
+        // the first request is answered again, by a duplicated response
+        assertFalse(respond(firstRequestId, response("<p>b</p>")));
+        assertTrue(second.mResponses.isEmpty());
+
+        HtmlResponse secondResponse = response("<p>c</p>");
+        assertTrue(respond(secondRequestId, secondResponse));
+        assertEquals(1, first.mResponses.size());
+        assertSame(firstResponse, first.mResponses.get(0));
+        assertSame(secondResponse, second.mResponses.get(0));
+    }
+
+    @Test
+    public void testStaleResponsesAreDiscarded() throws InterruptedException {
+        RecordingCallback timedOut = new RecordingCallback();
+        mTracker.request(CONTENT_VERSION, 10, timedOut);
+        int staleRequestId = lastSentRequestId();
+        assertTrue(timedOut.mTimedOut.await(5, TimeUnit.SECONDS));
+
+        RecordingCallback waiting = new RecordingCallback();
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, waiting);
+
+        assertFalse(respond(staleRequestId, response("<p>a</p>")));
+        assertTrue(timedOut.mResponses.isEmpty());
+        assertTrue(waiting.mResponses.isEmpty());
+        assertTrue(mTracker.isInFlight());
+    }
+
+    @Test
+    public void testRequestKeepsTheContentVersionOfItsFirstCaller() {
+        mTracker.request(CONTENT_VERSION, NO_TIMEOUT_MS, new RecordingCallback());
+        mTracker.request(CONTENT_VERSION + 1, NO_TIMEOUT_MS, new RecordingCallback());
+
+        HtmlRequestTracker.PendingRequest request = mTracker.claim(lastSentRequestId());
+        assertEquals(CONTENT_VERSION, request.getContentVersion());
+    }
+
+    @Test
+    public void testResponsesToUnknownRequestsAreDiscarded() {
+        assertFalse(respond(42, response("<p>a</p>")));
+
+        assertFalse(mTracker.isInFlight());
+        assertEquals(0, mSentRequestIds.size());
+    }
+}
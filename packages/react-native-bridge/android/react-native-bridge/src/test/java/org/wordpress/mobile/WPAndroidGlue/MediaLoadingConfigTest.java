@@ -0,0 +1,160 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import com.facebook.cache.disk.DiskCacheConfig;
+import com.facebook.imagepipeline.cache.DefaultBitmapMemoryCacheParamsSupplier;
+import com.facebook.imagepipeline.cache.MemoryCacheParams;
+import com.facebook.imagepipeline.core.ImagePipelineConfig;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MediaLoadingConfigTest {
+    private static final long CACHE_SIZE_BYTES = 10 * 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private final Interceptor mAuthInterceptor = new Interceptor() {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            return chain.proceed(chain.request());
+        }
+    };
+    private final ActivityManager mActivityManager = mock(ActivityManager.class);
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = mock(Context.class);
+        when(mContext.getApplicationContext()).thenReturn(mContext);
+        when(mContext.getCacheDir()).thenReturn(mTemporaryFolder.getRoot());
+        when(mContext.getSystemService(Context.ACTIVITY_SERVICE)).thenReturn(mActivityManager);
+    }
+
+    @Test
+    public void testHttpCacheIsOffByDefault() {
+        OkHttpClient client = new MediaLoadingConfig.Builder().build().buildHttpClient(mContext, mAuthInterceptor);
+
+        assertNull(client.cache());
+    }
+
+    @Test
+    public void testHttpCacheIsInTheCacheDirectoryOfTheApp() {
+        OkHttpClient client = new MediaLoadingConfig.Builder()
+                .setHttpCacheSizeBytes(CACHE_SIZE_BYTES)
+                .build()
+                .buildHttpClient(mContext, mAuthInterceptor);
+
+        assertEquals(new File(mTemporaryFolder.getRoot(), "gutenberg_http"), client.cache().directory());
+        assertEquals(CACHE_SIZE_BYTES, client.cache().maxSize());
+    }
+
+    @Test
+    public void testHttpCacheDirectoryCanBeSet() throws IOException {
+        File directory = mTemporaryFolder.newFolder("http");
+
+        OkHttpClient client = new MediaLoadingConfig.Builder()
+                .setHttpCacheDirectory(directory)
+                .setHttpCacheSizeBytes(CACHE_SIZE_BYTES)
+                .build()
+                .buildHttpClient(mContext, mAuthInterceptor);
+
+        assertEquals(directory, client.cache().directory());
+    }
+
+    @Test
+    public void testRequestsPerHostAreLimited() {
+        OkHttpClient client = new MediaLoadingConfig.Builder()
+                .setMaxRequestsPerHost(3)
+                .build()
+                .buildHttpClient(mContext, mAuthInterceptor);
+
+        assertEquals(3, client.dispatcher().getMaxRequestsPerHost());
+    }
+
+    @Test
+    public void testAuthInterceptorIsAddedLast() {
+        OkHttpClient client = new MediaLoadingConfig.Builder().build().buildHttpClient(mContext, mAuthInterceptor);
+
+        List<Interceptor> interceptors = client.interceptors();
+        assertSame(mAuthInterceptor, interceptors.get(interceptors.size() - 1));
+    }
+
+    @Test
+    public void testBaseClientIsSharedAndItsOptionsKept() {
+        OkHttpClient baseClient = new OkHttpClient();
+
+        OkHttpClient client = new MediaLoadingConfig.Builder()
+                .setBaseHttpClient(baseClient)
+                .setHttpCacheSizeBytes(CACHE_SIZE_BYTES)
+                .setMaxRequestsPerHost(3)
+                .build()
+                .buildHttpClient(mContext, mAuthInterceptor);
+
+        assertSame(baseClient.connectionPool(), client.connectionPool());
+        assertSame(baseClient.dispatcher(), client.dispatcher());
+        assertNull(client.cache());
+        assertSame(mAuthInterceptor, client.interceptors().get(client.interceptors().size() - 1));
+        // The app's client itself isn't changed
+        assertEquals(0, baseClient.interceptors().size());
+    }
+
+    @Test
+    public void testImageDiskCacheIsFrescosByDefault() {
+        ImagePipelineConfig config = new MediaLoadingConfig.Builder().build()
+                .buildImagePipelineConfig(mContext, new OkHttpClient());
+
+        assertNotEquals("gutenberg_images", config.getMainDiskCacheConfig().getBaseDirectoryName());
+    }
+
+    @Test
+    public void testImageDiskCacheIsInTheCacheDirectoryOfTheApp() {
+        ImagePipelineConfig config = new MediaLoadingConfig.Builder()
+                .setImageDiskCacheSizeBytes(CACHE_SIZE_BYTES)
+                .build()
+                .buildImagePipelineConfig(mContext, new OkHttpClient());
+
+        DiskCacheConfig diskCacheConfig = config.getMainDiskCacheConfig();
+        assertEquals(mTemporaryFolder.getRoot(), diskCacheConfig.getBaseDirectoryPathSupplier().get());
+        assertEquals("gutenberg_images", diskCacheConfig.getBaseDirectoryName());
+        assertEquals(CACHE_SIZE_BYTES, diskCacheConfig.getDefaultSizeLimit());
+    }
+
+    @Test
+    public void testImageMemoryCacheOnlyChangesTheSizeOfFrescosDefaults() {
+        int cacheSizeBytes = 32 * 1024 * 1024;
+
+        ImagePipelineConfig config = new MediaLoadingConfig.Builder()
+                .setImageMemoryCacheSizeBytes(cacheSizeBytes)
+                .build()
+                .buildImagePipelineConfig(mContext, new OkHttpClient());
+
+        MemoryCacheParams params = config.getBitmapMemoryCacheParamsSupplier().get();
+        MemoryCacheParams defaultParams = new DefaultBitmapMemoryCacheParamsSupplier(mActivityManager).get();
+        assertEquals(cacheSizeBytes, params.maxCacheSize);
+        assertEquals(defaultParams.maxCacheEntries, params.maxCacheEntries);
+        assertEquals(defaultParams.maxEvictionQueueSize, params.maxEvictionQueueSize);
+        assertEquals(defaultParams.maxEvictionQueueEntries, params.maxEvictionQueueEntries);
+        assertEquals(defaultParams.maxCacheEntrySize, params.maxCacheEntrySize);
+    }
+}
@@ -0,0 +1,135 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wordpress.mobile.WPAndroidGlue.WPAndroidGlueCode.OnAuthHeaderRequestedListener;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OkHttpHeaderInterceptorTest {
+    private static final String URL = "https://example.com/image.jpg";
+    private static final long TTL_MS = 1000;
+
+    private long mNow = 0;
+    private int mRequestedHeadersCount = 0;
+    private final OkHttpHeaderInterceptor mInterceptor = new OkHttpHeaderInterceptor(
+            new OkHttpHeaderInterceptor.Clock() {
+                @Override
+                public long elapsedRealtime() {
+                    return mNow;
+                }
+            });
+
+    // Answers with a new token every time it's asked
+    private final OnAuthHeaderRequestedListener mTokenListener = new OnAuthHeaderRequestedListener() {
+        @Override
+        public Map<String, String> onAuthHeaderRequested(String url) {
+            mRequestedHeadersCount++;
+            return Collections.singletonMap("Authorization", "token" + mRequestedHeadersCount);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        mInterceptor.setOnAuthHeaderRequestedListener(mTokenListener);
+    }
+
+    // Runs a request through the interceptor and returns its Authorization header
+    private String intercept(String url) throws IOException {
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(new Request.Builder().url(url).build());
+
+        mInterceptor.intercept(chain);
+
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+        verify(chain).proceed(request.capture());
+        return request.getValue().header("Authorization");
+    }
+
+    @Test
+    public void testHeadersAreRequestedForEveryRequestByDefault() throws IOException {
+        assertEquals("token1", intercept(URL));
+        assertEquals("token2", intercept(URL));
+    }
+
+    @Test
+    public void testHeadersAreReusedUntilTheyExpire() throws IOException {
+        mInterceptor.setHeadersTtlMs(TTL_MS);
+
+        assertEquals("token1", intercept(URL));
+        mNow += TTL_MS - 1;
+        assertEquals("token1", intercept(URL));
+        mNow += 1;
+        assertEquals("token2", intercept(URL));
+        assertEquals(2, mRequestedHeadersCount);
+    }
+
+    @Test
+    public void testHeadersAreKeptPerHost() throws IOException {
+        mInterceptor.setHeadersTtlMs(TTL_MS);
+
+        assertEquals("token1", intercept(URL));
+        assertEquals("token2", intercept("https://example.org/image.jpg"));
+        assertEquals("token1", intercept(URL));
+    }
+
+    @Test
+    public void testInvalidateForgetsTheHeaders() throws IOException {
+        mInterceptor.setHeadersTtlMs(TTL_MS);
+
+        assertEquals("token1", intercept(URL));
+        mInterceptor.invalidate();
+        assertEquals("token2", intercept(URL));
+        assertEquals("token2", intercept(URL));
+    }
+
+    @Test
+    public void testHeadersRequestedBeforeAnInvalidationAreNotCached() throws IOException {
+        mInterceptor.setHeadersTtlMs(TTL_MS);
+        mInterceptor.setOnAuthHeaderRequestedListener(new OnAuthHeaderRequestedListener() {
+            @Override
+            public Map<String, String> onAuthHeaderRequested(String url) {
+                // The token is rotated while the old one is being handed over
+                Map<String, String> headers = mTokenListener.onAuthHeaderRequested(url);
+                mInterceptor.invalidate();
+                return headers;
+            }
+        });
+
+        assertEquals("token1", intercept(URL));
+        assertEquals("token2", intercept(URL));
+    }
+
+    @Test
+    public void testMissingHeadersAreNotCached() throws IOException {
+        mInterceptor.setHeadersTtlMs(TTL_MS);
+        final Map<String, String> headers = new HashMap<>();
+        mInterceptor.setOnAuthHeaderRequestedListener(new OnAuthHeaderRequestedListener() {
+            @Override
+            public Map<String, String> onAuthHeaderRequested(String url) {
+                mRequestedHeadersCount++;
+                return mRequestedHeadersCount == 1 ? null : headers;
+            }
+        });
+
+        assertNull(intercept(URL));
+        assertNull(intercept(URL));
+        // e.g. the host app got signed in to the site
+        headers.put("Authorization", "token");
+        assertEquals("token", intercept(URL));
+        assertEquals(3, mRequestedHeadersCount);
+    }
+}
@@ -50,6 +50,16 @@ export function sendNativeEditorDidLayout() {
 	}
 }
 
+/**
+ * Lets the native side know that the content changed since it was last serialized, so it doesn't reuse what it
+ * already has. Only Android keeps a copy of the last serialized content.
+ */
+export function sendNativeEditorDidChangeContent() {
+	if ( isAndroid ) {
+		RNReactNativeGutenbergBridge.editorDidChangeContent();
+	}
+}
+
 // Register listeners.
 
 export function subscribeParentGetHtml( callback ) {
@@ -86,6 +96,36 @@ export function subscribePostSaveEvent( callback ) {
 	);
 }
 
+/**
+ * Subscribes to a media event and, on Android, to its batched version, which
+ * carries the payloads of several events emitted together.
+ *
+ * @param {string}   eventName Name of the media event.
+ * @param {Function} callback  Called with the payload of each event.
+ *
+ * @return {Object} Subscription, with a remove function.
+ */
+function addMediaEventListener( eventName, callback ) {
+	const subscription = gutenbergBridgeEvents.addListener(
+		eventName,
+		callback
+	);
+	if ( ! isAndroid ) {
+		return subscription;
+	}
+
+	const batchSubscription = gutenbergBridgeEvents.addListener(
+		`${ eventName }Batch`,
+		( { events } ) => events.forEach( ( event ) => callback( event ) )
+	);
+	return {
+		remove: () => {
+			subscription.remove();
+			batchSubscription.remove();
+		},
+	};
+}
+
 /**
  * Request to subscribe to mediaUpload events
  *
@@ -102,7 +142,7 @@ export function subscribePostSaveEvent( callback ) {
  *                            MEDIA_UPLOAD_STATE_RESET: sent when the progress and state needs be reset (a retry for example, for cleanup). Takes String mediaId.
  */
 export function subscribeMediaUpload( callback ) {
-	return gutenbergBridgeEvents.addListener( 'mediaUpload', callback );
+	return addMediaEventListener( 'mediaUpload', callback );
 }
 
 /**
@@ -127,7 +167,7 @@ export function subscribeMediaUpload( callback ) {
  *                            id to a remote file id.
  */
 export function subscribeMediaSave( callback ) {
-	return gutenbergBridgeEvents.addListener( 'mediaSave', callback );
+	return addMediaEventListener( 'mediaSave', callback );
 }
 
 export function subscribeMediaAppend( callback ) {
@@ -115,6 +115,7 @@ jest.mock( '@wordpress/react-native-bridge', () => {
 		showAndroidSoftKeyboard: jest.fn(),
 		hideAndroidSoftKeyboard: jest.fn(),
 		editorDidAutosave: jest.fn(),
+		sendNativeEditorDidChangeContent: jest.fn(),
 		subscribeMediaUpload: jest.fn(),
 		subscribeMediaSave: jest.fn(),
 		getOtherMediaOptions: jest.fn(),